@@ -0,0 +1,47 @@
+package com.example.temperaturemanagement.temperature;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Powtarzalne dane wejściowe benchmarków - stałe ziarno, więc każde uruchomienie mierzy to samo.
+ */
+final class TemperatureBenchmarkData {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2024, 1, 1);
+
+    private TemperatureBenchmarkData() {
+    }
+
+    static List<TemperatureReading> readings(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        List<TemperatureReading> readings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = FIRST_DATE.plusDays(i / 24);
+            readings.add(TemperatureReading.builder()
+                    .id((long) i + 1)
+                    .date(date)
+                    .dayOfWeek(date.getDayOfWeek().getValue())
+                    .hour(LocalTime.of(i % 24, 0))
+                    .temperature(Math.round((15.0 + random.nextDouble(-20.0, 20.0)) * 10.0) / 10.0)
+                    .source("BENCHMARK")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return readings;
+    }
+
+    static String csv(int rows) {
+        StringBuilder csv = new StringBuilder(rows * 32).append(TemperatureCsvParser.HEADER).append('\n');
+        for (TemperatureReading reading : readings(rows)) {
+            csv.append(TemperatureCsvParser.formatLine(reading)).append('\n');
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.temperaturemanagement.temperature;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Format binarny ({@link TemperatureBinaryFormat}) kontra CSV z separatorem {@code ;}: zapis tak jak w eksporcie
+ * i odczyt tak jak w imporcie strumieniowym. Rozmiary obu plików
+ * wypisywane są przy starcie każdego zestawu parametrów.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemperatureBinaryFormatBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private List<TemperatureReading> readings;
+    private byte[] csv;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        readings = TemperatureBenchmarkData.readings(rows);
+        csv = writeCsv();
+        binary = writeBinary();
+        System.out.printf("%n%d odczytów: CSV %d B (%.1f B/odczyt), binarnie %d B (%.1f B/odczyt)%n",
+                rows, csv.length, (double) csv.length / rows, binary.length, (double) binary.length / rows);
+    }
+
+    @Benchmark
+    public byte[] writeCsv() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            writer.write(TemperatureCsvParser.HEADER);
+            writer.write('\n');
+            for (TemperatureReading reading : readings) {
+                writer.write(TemperatureCsvParser.formatLine(reading));
+                writer.write('\n');
+            }
+        }
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeBinary() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TemperatureBinaryFormat.Writer writer = new TemperatureBinaryFormat.Writer(output);
+        for (TemperatureReading reading : readings) {
+            writer.write(reading);
+        }
+        writer.finish();
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public void readCsv(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                blackhole.consume(TemperatureCsvParser.parseLine(line, "CSV"));
+            }
+        }
+    }
+
+    @Benchmark
+    public void readBinary(Blackhole blackhole) throws IOException {
+        TemperatureBinaryFormat.Reader reader = new TemperatureBinaryFormat.Reader(new ByteArrayInputStream(binary));
+        List<TemperatureReading> block = new ArrayList<>(TemperatureBinaryFormat.BLOCK_READINGS);
+        while (reader.readBlock(block) >= 0) {
+            for (TemperatureReading reading : block) {
+                blackhole.consume(reading);
+            }
+            block.clear();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.temperaturemanagement.temperature;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsowanie pliku CSV tak jak w imporcie: podział na linie, walidacja kolumn i {@link TemperatureCsvParser#parseLine}.
+ * Wariant split odpowiada {@code importFromCsv}, wariant reader - importowi strumieniowemu.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemperatureCsvParserBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private String csv;
+
+    @Setup
+    public void setUp() {
+        csv = TemperatureBenchmarkData.csv(rows);
+    }
+
+    @Benchmark
+    public void parseSplitLines(Blackhole blackhole) {
+        String[] lines = csv.split("\n");
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || !TemperatureCsvParser.hasRequiredColumns(line)) continue;
+            blackhole.consume(TemperatureCsvParser.parseLine(line, "CSV"));
+        }
+    }
+
+    @Benchmark
+    public void parseWithReader(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new StringReader(csv))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || !TemperatureCsvParser.hasRequiredColumns(line)) continue;
+                blackhole.consume(TemperatureCsvParser.parseLine(line, "CSV"));
+            }
+        }
+    }
+}
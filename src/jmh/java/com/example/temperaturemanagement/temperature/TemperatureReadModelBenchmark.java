@@ -0,0 +1,97 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.TemperatureManagementApplication;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pierwsza strona odczytów z bazy H2 zapytaniem endpointów listujących ({@link TemperatureReadingView})
+ * bez transakcji i w transakcji tylko do odczytu, na tle tej samej strony pobranej jako encje. Alokację
+ * na wiersz daje {@code -prof gc} (gc.alloc.rate.norm podzielone przez {@code pageSize}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemperatureReadModelBenchmark {
+
+    private static final int READINGS = 20_000;
+
+    // Punkt odniesienia - repozytorium nie ma już wariantu stronicowania zwracającego encje
+    private static final String ENTITY_PAGE = "SELECT t FROM TemperatureReading t ORDER BY t.date, t.hour, t.id";
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TemperatureReadingRepository repository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        SpringApplication application = new SpringApplication(TemperatureManagementApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.temperaturemanagement=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+        repository = context.getBean(TemperatureReadingRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        TemperatureService temperatureService = context.getBean(TemperatureService.class);
+        List<TemperatureReading> seed = TemperatureBenchmarkData.readings(READINGS);
+        seed.forEach(reading -> reading.setId(null));
+        for (int from = 0; from < seed.size(); from += 5_000) {
+            temperatureService.importReadings(seed.subList(from, Math.min(seed.size(), from + 5_000)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TemperatureReading> entities() {
+        return entityManager.createQuery(ENTITY_PAGE, TemperatureReading.class)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    @Benchmark
+    public List<TemperatureReadingView> views() {
+        return repository.findFirstPageViews(null, null, null, Limit.of(pageSize));
+    }
+
+    @Benchmark
+    public List<TemperatureReadingView> viewsReadOnlyTransaction() {
+        return readOnlyTransaction.execute(status -> repository.findFirstPageViews(null, null, null, Limit.of(pageSize)));
+    }
+}
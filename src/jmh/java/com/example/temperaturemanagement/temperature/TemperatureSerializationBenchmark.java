@@ -0,0 +1,66 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Budowa odczytów builderem Lomboka i serializacja odpowiedzi listowych (strona, /latest) do JSON.
+ * ObjectMapper tworzony jest jak w Spring Boot, z modułem dat Java 8 i datami jako tekst.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemperatureSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<TemperatureReading> readings;
+    private TemperaturePage<TemperatureReading> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        readings = TemperatureBenchmarkData.readings(size);
+        page = TemperaturePage.<TemperatureReading>builder()
+                .items(readings)
+                .limit(size)
+                .hasMore(true)
+                .nextCursor("MjAyNC0wMS0wMXwxMDowMHwxMjM0")
+                .build();
+    }
+
+    @Benchmark
+    public List<TemperatureReading> buildReadings() {
+        return TemperatureBenchmarkData.readings(size);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(readings);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
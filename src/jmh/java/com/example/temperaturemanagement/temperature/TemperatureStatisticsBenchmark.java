@@ -0,0 +1,95 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.TemperatureManagementApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ścieżka statystyk na kontekście Springa z bazą H2 zasiloną {@code readings} odczytami:
+ * odpowiedź /stats i /stats/hourly z pamięci oraz pełne przeliczenie z bazy (/stats/consistency).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemperatureStatisticsBenchmark {
+
+    @Param({"10000", "100000"})
+    private int readings;
+
+    private ConfigurableApplicationContext context;
+    private TemperatureService temperatureService;
+    private TemperatureStatisticsAggregate statisticsAggregate;
+    private TemperatureReadingsChangedEvent change;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        SpringApplication application = new SpringApplication(TemperatureManagementApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.temperaturemanagement=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+        temperatureService = context.getBean(TemperatureService.class);
+        statisticsAggregate = context.getBean(TemperatureStatisticsAggregate.class);
+
+        List<TemperatureReading> seed = TemperatureBenchmarkData.readings(readings);
+        seed.forEach(reading -> reading.setId(null));
+        List<TemperatureReading> saved = List.of();
+        for (int from = 0; from < seed.size(); from += 5_000) {
+            saved = temperatureService.importReadings(seed.subList(from, Math.min(seed.size(), from + 5_000)));
+        }
+
+        TemperatureReading reading = saved.get(saved.size() - 1);
+        change = TemperatureReadingsChangedEvent.updated(reading, reading);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public TemperatureStats statisticsFromMemory() {
+        return temperatureService.getStatistics();
+    }
+
+    @Benchmark
+    public Map<LocalTime, Double> hourlyAveragesFromMemory() {
+        return temperatureService.getAverageTemperatureByHour();
+    }
+
+    // Zapis unieważnia migawkę - kolejny odczyt przelicza średnie godzinowe i dni tygodnia
+    @Benchmark
+    public TemperatureStats statisticsAfterChange() {
+        statisticsAggregate.onReadingsChanged(change);
+        return statisticsAggregate.snapshot();
+    }
+
+    @Benchmark
+    public TemperatureStatsConsistency statisticsFromDatabase() {
+        return temperatureService.checkStatisticsConsistency();
+    }
+}
@@ -0,0 +1,442 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.TemperatureManagementApplication;
+import com.example.temperaturemanagement.config.TemperatureSampleGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Test obciążeniowy na wbudowanej instancji aplikacji (losowy port, baza H2 w pamięci).
+ *
+ * <p>Baza jest zasilana {@code loadtest.readings} odczytami z {@link TemperatureSampleGenerator}, a potem
+ * mieszany ruch odczyt/zapis trafia we wszystkie endpointy {@link TemperatureController} ze stałą
+ * częstotliwością {@code loadtest.rate} żądań na sekundę (model otwarty). Opóźnienie liczone jest od
+ * planowanej chwili wysłania, więc zator po stronie serwera nie zaniża percentyli (coordinated omission).
+ * Dla każdego endpointu zapisywany jest histogram HDR: p50/p99/p99.9, maksimum, przepustowość i błędy.
+ * Wynik: tabela na stdout i {@code loadtest.result} w JSON. /stream (SSE) jest pominięty - to połączenie
+ * długotrwałe, nie żądanie. Masowe DELETE/PATCH /range i importy upsert działają na własnych źródłach
+ * LOAD_*, więc nie zmieniają danych, z których korzystają pozostałe endpointy.
+ */
+public class TemperatureLoadTest {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final String BOUNDARY = "temperature-load-test";
+    private static final String MULTIPART = "multipart/form-data; boundary=" + BOUNDARY;
+
+    private final int readings = Integer.getInteger("loadtest.readings", 100_000);
+    private final int rate = Integer.getInteger("loadtest.rate", 200);
+    private final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+    private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+    private final int maxInFlight = Integer.getInteger("loadtest.maxInFlight", 1_000);
+    private final File result = new File(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+
+    private final SplittableRandom random = new SplittableRandom(Long.getLong("loadtest.seed", 42L));
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final List<Long> seededIds = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong uniqueCounter = new AtomicLong();
+    private final Semaphore inFlight = new Semaphore(maxInFlight);
+
+    private String baseUrl;
+    private LocalDate lastDate;
+    private int seededDays;
+    private volatile boolean recording;
+
+    public static void main(String[] args) throws Exception {
+        new TemperatureLoadTest().run(args);
+    }
+
+    private void run(String[] args) throws Exception {
+        ConfigurableApplicationContext context = startApplication(args);
+        try {
+            seed(context.getBean(TemperatureService.class));
+            defineEndpoints();
+
+            System.out.printf("Rozgrzewka %s przy %d żądaniach/s...%n", warmup, rate);
+            drive(warmup);
+            recording = true;
+            System.out.printf("Pomiar %s przy %d żądaniach/s...%n", duration, rate);
+            long start = System.nanoTime();
+            drive(duration);
+            inFlight.acquire(maxInFlight);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            report(seconds);
+        } finally {
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(String[] args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.example.temperaturemanagement=WARN",
+                "--logging.level.org.hibernate.SQL=WARN"));
+        arguments.addAll(List.of(args));
+        ConfigurableApplicationContext context =
+                SpringApplication.run(TemperatureManagementApplication.class, arguments.toArray(String[]::new));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/temperatures";
+        return context;
+    }
+
+    private void seed(TemperatureService temperatureService) {
+        // Jeden czujnik to najwyżej rok odczytów godzinowych - większe zbiory rozkładamy na kilka czujników
+        int perSensor = 365 * 24;
+        int sensors = Math.max(1, (readings + perSensor - 1) / perSensor);
+        seededDays = Math.min(365, Math.max(1, (readings / sensors + 23) / 24));
+        lastDate = LocalDate.now().minusDays(1);
+
+        System.out.printf("Zasilanie bazy: %d odczytów (%d czujników x %d dni)...%n", readings, sensors, seededDays);
+        int remaining = readings;
+        for (int sensor = 1; sensor <= sensors && remaining > 0; sensor++) {
+            List<TemperatureReading> generated = TemperatureSampleGenerator.generate(
+                    lastDate, seededDays, 1, "LOAD_SENSOR_" + sensor, random.split());
+            generated = generated.subList(0, Math.min(remaining, generated.size()));
+            for (int from = 0; from < generated.size(); from += 5_000) {
+                temperatureService.importReadings(generated.subList(from, Math.min(generated.size(), from + 5_000)))
+                        .forEach(saved -> seededIds.add(saved.getId()));
+            }
+            remaining -= generated.size();
+        }
+    }
+
+    private void defineEndpoints() {
+        endpoints.add(new Endpoint("GET /", 6, r -> get("?limit=100")));
+        endpoints.add(new Endpoint("GET /{id}", 10, r -> get("/" + seededId(r))));
+        endpoints.add(new Endpoint("POST /", 8, r -> post("", "application/json", readingJson("LOAD_POST"))));
+        endpoints.add(new Endpoint("POST /ingest", 8, r -> post("/ingest", "application/json", readingJson("LOAD_INGEST"))));
+        endpoints.add(new Endpoint("GET /ingest/stats", 1, r -> get("/ingest/stats")));
+        endpoints.add(new Endpoint("PUT /{id}", 4, r -> put("/" + seededId(r),
+                "{\"temperature\":" + TemperatureSampleGenerator.temperature(lastDate, 12, r) + "}")));
+        endpoints.add(new Endpoint("DELETE /{id}", 2, r -> {
+            Long id = createdIds.poll();
+            return id == null ? null : HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).DELETE().build();
+        }));
+        endpoints.add(new Endpoint("GET /date/{date}", 10, r -> get("/date/" + seededDate(r))));
+        endpoints.add(new Endpoint("GET /date/{date}/latest", 4, r -> get("/date/" + seededDate(r) + "/latest")));
+        endpoints.add(new Endpoint("GET /range", 6, r -> {
+            LocalDate start = seededDate(r);
+            return get("/range?startDate=" + start + "&endDate=" + start.plusDays(7) + "&limit=100");
+        }));
+        endpoints.add(new Endpoint("DELETE /range", 1, r -> delete("/range?startDate=" + lastDate.plusDays(2)
+                + "&endDate=" + uniqueDate(uniqueCounter.get()) + "&source=LOAD_BINARY")));
+        endpoints.add(new Endpoint("PATCH /range", 1, r -> {
+            LocalDate start = seededDate(r);
+            return patch("/range?startDate=" + start + "&endDate=" + start.plusDays(7) + "&source=LOAD_UPSERT",
+                    "{\"temperatureOffset\":" + (r.nextBoolean() ? 0.5 : -0.5) + "}");
+        }));
+        endpoints.add(new Endpoint("GET /range/series", 4, r -> {
+            LocalDate start = seededDate(r);
+            return get("/range/series?startDate=" + start + "&endDate=" + start.plusDays(30)
+                    + "&maxPoints=200&mode=" + (r.nextBoolean() ? "bucket" : "lttb"));
+        }));
+        endpoints.add(new Endpoint("GET /range/summary", 4, r -> {
+            LocalDate start = seededDate(r);
+            return get("/range/summary?startDate=" + start + "&endDate=" + start.plusDays(30));
+        }));
+        endpoints.add(new Endpoint("GET /export", 1, r -> {
+            LocalDate start = seededDate(r);
+            return get("/export?startDate=" + start + "&endDate=" + start.plusDays(7) + "&format=" + (r.nextBoolean() ? "csv" : "ndjson"));
+        }));
+        endpoints.add(new Endpoint("GET /export?format=binary", 1, r -> {
+            LocalDate start = seededDate(r);
+            return get("/export?startDate=" + start + "&endDate=" + start.plusDays(7) + "&format=binary");
+        }));
+        endpoints.add(new Endpoint("POST /upload-csv", 1, r -> post("/upload-csv", MULTIPART,
+                multipart("load.csv", "text/csv", csvFile(uniqueReadings(r, 20, null))))));
+        endpoints.add(new Endpoint("POST /upload-csv/stream", 1, r -> post("/upload-csv/stream", MULTIPART,
+                multipart("load.csv", "text/csv", csvFile(uniqueReadings(r, 200, null))))));
+        // Upsert całego dnia danych startowych - pierwsze wysłanie dodaje odczyty, kolejne je zmieniają
+        endpoints.add(new Endpoint("POST /upload-csv/stream?mode=upsert", 1, r -> post("/upload-csv/stream?mode=upsert",
+                MULTIPART, multipart("load.csv", "text/csv", csvFile(dayReadings(r, null))))));
+        endpoints.add(new Endpoint("POST /upload-binary", 1, r -> post("/upload-binary", MULTIPART,
+                multipart("load.bin", "application/octet-stream", binaryFile(uniqueReadings(r, 200, "LOAD_BINARY"))))));
+        endpoints.add(new Endpoint("POST /upload-binary?mode=upsert", 1, r -> post("/upload-binary?mode=upsert", MULTIPART,
+                multipart("load.bin", "application/octet-stream", binaryFile(dayReadings(r, "LOAD_UPSERT"))))));
+        endpoints.add(new Endpoint("GET /stats", 8, r -> get("/stats")));
+        endpoints.add(new Endpoint("GET /stats/consistency", 1, r -> get("/stats/consistency")));
+        endpoints.add(new Endpoint("GET /stats/cache", 1, r -> get("/stats/cache")));
+        endpoints.add(new Endpoint("GET /stats/columnar", 1, r -> get("/stats/columnar")));
+        endpoints.add(new Endpoint("GET /stats/db-gate", 1, r -> get("/stats/db-gate")));
+        endpoints.add(new Endpoint("GET /stats/hourly", 6, r -> get("/stats/hourly")));
+        endpoints.add(new Endpoint("GET /aggregate", 3, r -> {
+            LocalDate start = seededDate(r);
+            return get("/aggregate?groupBy=hour,source&metrics=avg,min,max&startDate=" + start + "&endDate=" + start.plusDays(30));
+        }));
+        endpoints.add(new Endpoint("GET /latest", 8, r -> get("/latest?limit=" + (1 + r.nextInt(50)))));
+        endpoints.add(new Endpoint("GET /forecast", 3, r -> get("/forecast?date=" + LocalDate.now() + "&days=" + (1 + r.nextInt(7)))));
+        endpoints.add(new Endpoint("GET /average/{date}", 4, r -> get("/average/" + seededDate(r))));
+    }
+
+    /**
+     * Wysyła żądania w stałych odstępach przez zadany czas. Kolejne żądanie nie czeka na odpowiedź
+     * poprzedniego; limit {@code loadtest.maxInFlight} chroni tylko przed wyczerpaniem pamięci.
+     */
+    private void drive(Duration period) throws InterruptedException {
+        int totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long requests = period.toNanos() / interval;
+
+        for (long i = 0; i < requests; i++) {
+            long intended = start + i * interval;
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            Endpoint endpoint = pick(totalWeight);
+            HttpRequest request = endpoint.request.apply(random.split());
+            if (request == null) {
+                continue;
+            }
+            inFlight.acquire();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (recording) {
+                            endpoint.record(intended, response, error);
+                        }
+                        if (response != null && response.statusCode() == 201 && endpoint.name.equals("POST /")) {
+                            rememberCreated(response.body());
+                        }
+                    });
+        }
+    }
+
+    private void report(double seconds) throws IOException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        System.out.printf("%n%-36s %9s %9s %9s %9s %9s %9s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Endpoint endpoint : endpoints) {
+            Histogram histogram = endpoint.latencies;
+            long count = histogram.getTotalCount();
+            System.out.printf("%-36s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                    endpoint.name, count, count / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()), endpoint.errors.get());
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", count);
+            stats.put("throughput", count / seconds);
+            stats.put("p50Millis", millis(histogram.getValueAtPercentile(50)));
+            stats.put("p99Millis", millis(histogram.getValueAtPercentile(99)));
+            stats.put("p999Millis", millis(histogram.getValueAtPercentile(99.9)));
+            stats.put("maxMillis", millis(histogram.getMaxValue()));
+            stats.put("errors", endpoint.errors.get());
+            results.put(endpoint.name, stats);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("readings", readings);
+        report.put("targetRate", rate);
+        report.put("durationSeconds", seconds);
+        report.put("endpoints", results);
+        result.getParentFile().mkdirs();
+        objectMapper.writeValue(result, report);
+        System.out.println("\nWynik zapisany w " + result.getPath());
+    }
+
+    private Endpoint pick(int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    private void rememberCreated(byte[] body) {
+        try {
+            JsonNode created = objectMapper.readTree(body);
+            createdIds.add(created.get("id").asLong());
+        } catch (IOException e) {
+            // Odpowiedź bez id - nie będzie kandydatem do usunięcia
+        }
+    }
+
+    private long seededId(SplittableRandom r) {
+        return seededIds.get(r.nextInt(seededIds.size()));
+    }
+
+    private LocalDate seededDate(SplittableRandom r) {
+        return lastDate.minusDays(r.nextInt(seededDays));
+    }
+
+    // Unikalna para (data, godzina) dla każdego zapisu, żeby zapisy nie kolidowały ze sobą ani z danymi startowymi
+    private LocalDate uniqueDate(long unique) {
+        return lastDate.plusDays(2 + unique / 86_400);
+    }
+
+    private LocalTime uniqueTime(long unique) {
+        return LocalTime.ofSecondOfDay(unique % 86_400);
+    }
+
+    private String readingJson(String source) {
+        long unique = uniqueCounter.getAndIncrement();
+        LocalDate date = uniqueDate(unique);
+        LocalTime time = uniqueTime(unique);
+        return "{\"date\":\"" + date + "\",\"dayOfWeek\":" + date.getDayOfWeek().getValue()
+                + ",\"hour\":\"" + time + "\",\"temperature\":" + TemperatureSampleGenerator.temperature(date, time.getHour(), random.split())
+                + ",\"source\":\"" + source + "\"}";
+    }
+
+    private List<TemperatureReading> uniqueReadings(SplittableRandom r, int rows, String source) {
+        List<TemperatureReading> generated = new ArrayList<>(rows);
+        long first = uniqueCounter.getAndAdd(rows);
+        for (long unique = first; unique < first + rows; unique++) {
+            generated.add(reading(uniqueDate(unique), uniqueTime(unique), source, r));
+        }
+        return generated;
+    }
+
+    // Godziny jednego dnia danych startowych - klucze powtarzają się między żądaniami
+    private List<TemperatureReading> dayReadings(SplittableRandom r, String source) {
+        LocalDate date = seededDate(r);
+        List<TemperatureReading> generated = new ArrayList<>(24);
+        for (int hour = 0; hour < 24; hour++) {
+            generated.add(reading(date, LocalTime.of(hour, 0), source, r));
+        }
+        return generated;
+    }
+
+    private static TemperatureReading reading(LocalDate date, LocalTime time, String source, SplittableRandom r) {
+        return TemperatureReading.builder()
+                .date(date)
+                .dayOfWeek(date.getDayOfWeek().getValue())
+                .hour(time)
+                .temperature(TemperatureSampleGenerator.temperature(date, time.getHour(), r))
+                .source(source)
+                .build();
+    }
+
+    private static byte[] csvFile(List<TemperatureReading> readings) {
+        StringBuilder csv = new StringBuilder(TemperatureCsvParser.HEADER).append('\n');
+        readings.forEach(reading -> csv.append(TemperatureCsvParser.formatLine(reading)).append('\n'));
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] binaryFile(List<TemperatureReading> readings) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            TemperatureBinaryFormat.Writer writer = new TemperatureBinaryFormat.Writer(output);
+            for (TemperatureReading reading : readings) {
+                writer.write(reading);
+            }
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] multipart(String fileName, String contentType, byte[] content) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String contentType, String body) {
+        return post(path, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HttpRequest post(String path, String contentType, byte[] body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private HttpRequest put(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private HttpRequest patch(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private HttpRequest delete(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).DELETE().build();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        private final String name;
+        private final int weight;
+        private final Function<SplittableRandom, HttpRequest> request;
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+
+        private Endpoint(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        private int weight() {
+            return weight;
+        }
+
+        private void record(long intendedNanos, HttpResponse<byte[]> response, Throwable error) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos);
+            latencies.recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+            if (error != null || response.statusCode() >= 400) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.temperaturemanagement.config;
 
 import com.example.temperaturemanagement.temperature.TemperatureReading;
 import com.example.temperaturemanagement.temperature.TemperatureReadingRepository;
+import com.example.temperaturemanagement.temperature.TemperatureService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -11,23 +12,48 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
+/**
+ * Ładuje przykładowe dane do pustej bazy. Domyślnie w osobnym wątku, żeby start aplikacji
+ * i jej gotowość (readiness) nie czekały na zapis; odczyty pojawiają się w statystykach po zatwierdzeniu.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TemperatureDataLoader implements CommandLineRunner {
 
     private final TemperatureReadingRepository temperatureRepository;
+    private final TemperatureService temperatureService;
+    private final TemperatureProperties properties;
 
     @Override
-    public void run(String... args) throws Exception {
-        if (temperatureRepository.count() == 0) {
+    public void run(String... args) {
+        if (!properties.getSampleData().isEnabled()) {
+            return;
+        }
+        if (!properties.getSampleData().isBackground()) {
+            loadIfEmpty();
+            return;
+        }
+        Thread loader = new Thread(this::loadIfEmpty, "temperature-sample-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void loadIfEmpty() {
+        try {
+            long existing = temperatureRepository.count();
+            if (existing > 0) {
+                log.info("Baza danych zawiera już {} odczytów. Pomijanie ładowania przykładowych danych.", existing);
+                return;
+            }
+            long start = System.nanoTime();
             log.info("Baza danych jest pusta. Ładowanie przykładowych danych temperatury...");
             loadSampleTemperatureData();
-            log.info("Przykładowe dane temperatury załadowane pomyślnie!");
-        } else {
-            log.info("Baza danych zawiera już {} odczytów. Pomijanie ładowania przykładowych danych.",
-                    temperatureRepository.count());
+            log.info("Przykładowe dane temperatury załadowane pomyślnie w {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Ładowanie przykładowych danych nie powiodło się: {}", e.getMessage(), e);
         }
     }
 
@@ -36,42 +62,7 @@ public class TemperatureDataLoader implements CommandLineRunner {
         LocalDate today = LocalDate.now();
 
         // Generuj dane dla ostatnich 7 dni, co 2 godziny (żeby nie było za dużo)
-        for (int day = 0; day < 7; day++) {
-            LocalDate date = today.minusDays(day);
-            int dayOfWeek = date.getDayOfWeek().getValue();
-
-            // Co 2 godziny: 0, 2, 4, 6, 8, 10, 12, 14, 16, 18, 20, 22
-            for (int hour = 0; hour < 24; hour += 2) {
-                LocalTime time = LocalTime.of(hour, 0);
-
-                // Symulacja realistycznych temperatur
-                double baseTemp = 15.0; // Średnia temperatura (15°C)
-
-                // Cykl dzienny - rano zimniej, po południu cieplej
-                double hourlyVariation = Math.sin((hour - 6) * Math.PI / 12) * 8; // -8°C do +8°C
-
-                // Losowa zmienność ±2°C
-                double randomVariation = (Math.random() - 0.5) * 4;
-
-                // Sezonowość - zima zimniej, lato cieplej
-                double seasonalVariation = Math.sin((today.getDayOfYear() - 80) * 2 * Math.PI / 365) * 10;
-
-                double temperature = baseTemp + hourlyVariation + randomVariation + seasonalVariation;
-
-                // Zaokrąglenie do 1 miejsca po przecinku
-                temperature = Math.round(temperature * 10.0) / 10.0;
-
-                TemperatureReading reading = TemperatureReading.builder()
-                        .date(date)
-                        .dayOfWeek(dayOfWeek)
-                        .hour(time)
-                        .temperature(temperature)
-                        .source("SAMPLE_DATA")
-                        .build();
-
-                sampleReadings.add(reading);
-            }
-        }
+        sampleReadings.addAll(TemperatureSampleGenerator.generate(today, 7, 2, "SAMPLE_DATA", RandomGenerator.getDefault()));
 
         // Dodaj kilka przykładów z różnych źródeł
         sampleReadings.add(TemperatureReading.builder()
@@ -90,7 +81,7 @@ public class TemperatureDataLoader implements CommandLineRunner {
                 .source("CSV")
                 .build());
 
-        temperatureRepository.saveAll(sampleReadings);
+        temperatureService.importReadings(sampleReadings);
         log.info("Załadowano {} przykładowych odczytów temperatury", sampleReadings.size());
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.temperaturemanagement.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Obsługa {@code @Timed} na serwisach. Metryki HTTP, repozytoriów Spring Data, puli Hikari i statystyk
+ * Hibernate konfiguruje Spring Boot Actuator; komponenty z własnym stanem (cache dat, bramka bazy,
+ * kolejka zapisu, strumień SSE) rejestrują się same jako {@code MeterBinder}.
+ */
+@Configuration
+public class TemperatureMetricsConfiguration {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
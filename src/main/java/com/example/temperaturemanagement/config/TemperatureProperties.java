@@ -0,0 +1,156 @@
+package com.example.temperaturemanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Period;
+
+@Data
+@ConfigurationProperties(prefix = "temperature")
+public class TemperatureProperties {
+
+    private CsvImport csvImport = new CsvImport();
+    private Pagination pagination = new Pagination();
+    private Series series = new Series();
+    private Forecast forecast = new Forecast();
+    private Cache cache = new Cache();
+    private Latest latest = new Latest();
+    private Stream stream = new Stream();
+    private Ingest ingest = new Ingest();
+    private DbGate dbGate = new DbGate();
+    private Storage storage = new Storage();
+    private Columnar columnar = new Columnar();
+    private Bulk bulk = new Bulk();
+    private Retention retention = new Retention();
+    private SampleData sampleData = new SampleData();
+
+    @Data
+    public static class CsvImport {
+        // Liczba wierszy zatwierdzanych w jednej transakcji przy imporcie strumieniowym
+        private int chunkSize = 1000;
+    }
+
+    @Data
+    public static class Pagination {
+        private int defaultLimit = 100;
+        // Większe wartości parametru limit są przycinane do tej wartości
+        private int maxLimit = 1000;
+    }
+
+    @Data
+    public static class Series {
+        private int defaultPoints = 500;
+        // Większe wartości parametru maxPoints są przycinane do tej wartości
+        private int maxPoints = 5000;
+    }
+
+    @Data
+    public static class Forecast {
+        // 0 = zwykła średnia; wartość z (0, 1) = waga wygaszania starszych odczytów przy każdym nowym
+        private double decay = 0.0;
+        private int maxHorizonDays = 14;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        // Łączna liczba odczytów we wszystkich buforowanych datach (każda data waży 1 + liczba odczytów)
+        private long maxWeight = 100_000;
+    }
+
+    @Data
+    public static class Latest {
+        // Rozmiar bufora cyklicznego - górna granica parametru limit w /latest
+        private int capacity = 1000;
+        private int defaultLimit = 10;
+    }
+
+    @Data
+    public static class Stream {
+        private int maxSubscribers = 100;
+        // Wątki wysyłające zdarzenia SSE; wolny klient zajmuje najwyżej jeden z nich
+        private int senderThreads = 4;
+        // Najwięcej odczytów wysyłanych jednemu subskrybentowi w jednym przebiegu
+        private int maxBatch = 100;
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Ingest {
+        // false = POST /ingest zapisuje odczyt od razu, jak POST /api/temperatures
+        private boolean enabled = false;
+        private int queueCapacity = 10_000;
+        // Paczka jest zapisywana po zebraniu batch-size odczytów albo po max-delay od pierwszego z nich
+        private int batchSize = 500;
+        private Duration maxDelay = Duration.ofMillis(50);
+        private QueueFullPolicy queueFullPolicy = QueueFullPolicy.REJECT;
+        // Dla polityki BLOCK - jak długo żądanie czeka na miejsce w kolejce przed odrzuceniem
+        private Duration blockTimeout = Duration.ofSeconds(1);
+        private String defaultAck = "none";
+        // Dla ack=commit - jak długo żądanie czeka na zatwierdzenie paczki
+        private Duration commitTimeout = Duration.ofSeconds(10);
+
+        public enum QueueFullPolicy {
+            REJECT,
+            BLOCK
+        }
+    }
+
+    @Data
+    public static class DbGate {
+        private boolean enabled = true;
+        // Domyślnie rozmiar puli połączeń - więcej równoległych transakcji i tak czekałoby na połączenie
+        private int permits = 10;
+        // Dłuższe oczekiwanie na wejście kończy się odpowiedzią 503
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Storage {
+        // false = tylko H2 w pamięci, dane giną przy restarcie
+        private boolean enabled = false;
+        private String directory = "data/temperature-log";
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        // Snapshot indeksu skraca odtwarzanie do jednego pliku i końcówki dziennika
+        private Duration snapshotInterval = Duration.ofMinutes(5);
+        // true = fsync segmentu przy każdym commicie (odporność na awarię systemu, nie tylko procesu)
+        private boolean forceOnCommit = false;
+    }
+
+    @Data
+    public static class Columnar {
+        // false = strony i /aggregate czytane z bazy (i cache dat), średnie dnia z podsumowań dziennych
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Bulk {
+        // DELETE/PATCH /range: najwięcej odczytów w jednej instrukcji (kolejne daty łączone w paczki jednej transakcji)
+        private int batchSize = 5000;
+    }
+
+    @Data
+    public static class Retention {
+        // false = surowe odczyty przechowywane bez limitu; nie działa razem z temperature.storage
+        private boolean enabled = false;
+        // Odczyty starsze niż raw-retention trafiają do agregatów godzinowych
+        private Period rawRetention = Period.ofDays(30);
+        // Agregaty godzinowe starsze niż hourly-retention trafiają do dziennych, przechowywanych bez limitu
+        private Period hourlyRetention = Period.ofYears(1);
+        private Duration interval = Duration.ofHours(1);
+        // Najwięcej odczytów (albo agregatów godzinowych) przenoszonych w jednej transakcji
+        private int batchSize = 5000;
+        // Przerwa między transakcjami, żeby kompaktowanie nie wypierało zwykłych zapisów
+        private Duration pause = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class SampleData {
+        // Przykładowe dane tylko do pustej bazy; false np. dla kolejnych instancji przy skalowaniu
+        private boolean enabled = true;
+        // true = ładowanie w tle, bez opóźniania gotowości aplikacji
+        private boolean background = true;
+    }
+}
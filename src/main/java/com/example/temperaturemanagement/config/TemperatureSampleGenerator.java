@@ -0,0 +1,60 @@
+package com.example.temperaturemanagement.config;
+
+import com.example.temperaturemanagement.temperature.TemperatureReading;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generator realistycznych odczytów: cykl dobowy, sezonowość i losowy szum.
+ * Używany przez {@link TemperatureDataLoader} oraz do zasilania bazy w testach obciążeniowych.
+ */
+public final class TemperatureSampleGenerator {
+
+    private TemperatureSampleGenerator() {
+    }
+
+    /**
+     * Odczyty z {@code days} dni kończących się na {@code lastDate} (od najnowszego dnia),
+     * co {@code hourStep} godzin od północy.
+     */
+    public static List<TemperatureReading> generate(LocalDate lastDate, int days, int hourStep, String source,
+                                                    RandomGenerator random) {
+        List<TemperatureReading> readings = new ArrayList<>(days * (24 / hourStep + 1));
+        for (int day = 0; day < days; day++) {
+            LocalDate date = lastDate.minusDays(day);
+            for (int hour = 0; hour < 24; hour += hourStep) {
+                readings.add(TemperatureReading.builder()
+                        .date(date)
+                        .dayOfWeek(date.getDayOfWeek().getValue())
+                        .hour(LocalTime.of(hour, 0))
+                        .temperature(temperature(date, hour, random))
+                        .source(source)
+                        .build());
+            }
+        }
+        return readings;
+    }
+
+    public static double temperature(LocalDate date, int hour, RandomGenerator random) {
+        // Symulacja realistycznych temperatur
+        double baseTemp = 15.0; // Średnia temperatura (15°C)
+
+        // Cykl dzienny - rano zimniej, po południu cieplej
+        double hourlyVariation = Math.sin((hour - 6) * Math.PI / 12) * 8; // -8°C do +8°C
+
+        // Losowa zmienność ±2°C
+        double randomVariation = (random.nextDouble() - 0.5) * 4;
+
+        // Sezonowość - zima zimniej, lato cieplej
+        double seasonalVariation = Math.sin((date.getDayOfYear() - 80) * 2 * Math.PI / 365) * 10;
+
+        double temperature = baseTemp + hourlyVariation + randomVariation + seasonalVariation;
+
+        // Zaokrąglenie do 1 miejsca po przecinku
+        return Math.round(temperature * 10.0) / 10.0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.temperaturemanagement.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Granice leniwej inicjalizacji (profil {@code faststart}, spring.main.lazy-initialization). Leniwie tworzona jest
+ * tylko infrastruktura bibliotek. Beany aplikacji zostają gorliwe: statystyki, cache dat, prognoza i replika
+ * kolumnowa budują stan przy starcie i nasłuchują zdarzeń zapisu. Leniwy słuchacz przegapiłby zmiany sprzed
+ * pierwszego użycia. MeterBinder-y też zostają gorliwe, bo metryka rejestrowana przy pierwszym żądaniu znika ze scrape'ów.
+ */
+@Configuration
+public class TemperatureStartupConfiguration {
+
+    private static final String APPLICATION_PACKAGE = "com.example.temperaturemanagement.";
+
+    @Bean
+    public static LazyInitializationExcludeFilter temperatureEagerBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (beanType.getName().startsWith(APPLICATION_PACKAGE) || MeterBinder.class.isAssignableFrom(beanType));
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.temperaturemanagement.exception;
 
+import com.example.temperaturemanagement.temperature.TemperatureReading;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -11,6 +14,7 @@ import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @ControllerAdvice
@@ -49,6 +53,53 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    @ExceptionHandler(TemperatureServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleTemperatureServiceOverloadedException(
+            TemperatureServiceOverloadedException ex, WebRequest request) {
+        log.warn("Przeciążenie: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Usługa przeciążona")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex, WebRequest request) {
+        // 409 tylko dla klucza naturalnego (date, hour, source); inne naruszenia to błąd, nie konflikt danych
+        if (!isNaturalKeyViolation(ex)) {
+            return handleGenericException(ex, request);
+        }
+        log.warn("Konflikt zapisu: {}", ex.getMostSpecificCause().getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Konflikt danych")
+                .message("Odczyt dla tej daty, godziny i źródła już istnieje")
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    // H2 podaje nazwę indeksu ograniczenia (np. PUBLIC.UK_..._INDEX_D), więc porównanie przez zawieranie
+    private static boolean isNaturalKeyViolation(DataIntegrityViolationException ex) {
+        String uniqueKey = TemperatureReading.UNIQUE_KEY_NAME.toUpperCase(Locale.ROOT);
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toUpperCase(Locale.ROOT).contains(uniqueKey);
+            }
+        }
+        return false;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -75,6 +126,12 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
             Exception ex, WebRequest request) {
+        // Bramka bazy odmawia połączenia - menedżer transakcji albo Hibernate opakowują wtedy wyjątek
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof TemperatureServiceOverloadedException overloaded) {
+                return handleTemperatureServiceOverloadedException(overloaded, request);
+            }
+        }
         log.error("Nieoczekiwany błąd: {}", ex.getMessage(), ex);
 
         ErrorResponse errorResponse = ErrorResponse.builder()
@@ -0,0 +1,11 @@
+package com.example.temperaturemanagement.exception;
+
+public class TemperatureServiceOverloadedException extends RuntimeException {
+    public TemperatureServiceOverloadedException(String message) {
+        super(message);
+    }
+
+    public TemperatureServiceOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
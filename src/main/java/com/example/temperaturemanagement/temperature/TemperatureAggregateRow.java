@@ -0,0 +1,26 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TemperatureAggregateRow {
+
+    // Wartości wymiarów grupowania, np. {"hour": "12:00", "source": "CSV"}
+    private Map<String, Object> group;
+    // Metryki, o które nie poproszono, pozostają null i nie trafiają do odpowiedzi
+    private Long count;
+    private Double minTemperature;
+    private Double maxTemperature;
+    private Double averageTemperature;
+    private Double standardDeviation;
+}
@@ -0,0 +1,45 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.YearMonth;
+
+/**
+ * Wymiar grupowania dostępny w /aggregate razem z wyrażeniem JPQL, po którym grupuje baza.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TemperatureAggregationDimension {
+
+    HOUR("hour", "t.hour"),
+    DAY_OF_WEEK("dayOfWeek", "t.dayOfWeek"),
+    SOURCE("source", "t.source"),
+    DAY("day", "t.date"),
+    // Poniedziałek tygodnia ISO wyliczony z samej daty, niezależnie od zapisanego dayOfWeek
+    // (HQL numeruje dni tygodnia od niedzieli = 1 w każdym dialekcie)
+    WEEK("week", "t.date - MOD(EXTRACT(DAY OF WEEK FROM t.date) + 5, 7) DAY"),
+    // yyyyMM jako liczba, formatowane do "yyyy-MM" po stronie aplikacji
+    MONTH("month", "EXTRACT(YEAR FROM t.date) * 100 + EXTRACT(MONTH FROM t.date)");
+
+    private final String key;
+    private final String expression;
+
+    public Object toKey(Object value) {
+        if (this == MONTH && value instanceof Number number) {
+            int yearMonth = number.intValue();
+            return YearMonth.of(yearMonth / 100, yearMonth % 100).toString();
+        }
+        return value;
+    }
+
+    public static TemperatureAggregationDimension from(String value) {
+        for (TemperatureAggregationDimension dimension : values()) {
+            if (dimension.key.equalsIgnoreCase(value) || dimension.name().equalsIgnoreCase(value)) {
+                return dimension;
+            }
+        }
+        throw new InvalidTemperatureDataException("Nieobsługiwany wymiar grupowania: " + value);
+    }
+}
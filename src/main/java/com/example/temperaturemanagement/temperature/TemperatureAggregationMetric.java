@@ -0,0 +1,17 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+
+public enum TemperatureAggregationMetric {
+
+    COUNT, MIN, MAX, AVG, STDDEV;
+
+    public static TemperatureAggregationMetric from(String value) {
+        for (TemperatureAggregationMetric metric : values()) {
+            if (metric.name().equalsIgnoreCase(value)) {
+                return metric;
+            }
+        }
+        throw new InvalidTemperatureDataException("Nieobsługiwana metryka: " + value);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Agregacja po dowolnej kombinacji wymiarów wykonywana jednym zapytaniem GROUP BY albo - przy włączonej
+ * replice kolumnowej - jedną pętlą po {@link TemperatureColumnStore}, bez połączenia z bazą.
+ * Oba warianty liczą COUNT, MIN, MAX, SUM i sumę kwadratów - średnia i odchylenie standardowe
+ * wyliczane są z nich po stronie aplikacji, a do odpowiedzi trafiają tylko wybrane metryki.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class TemperatureAggregationService {
+
+    private final EntityManager entityManager;
+    private final TemperatureColumnStore columnStore;
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<TemperatureAggregateRow> aggregate(Set<TemperatureAggregationDimension> dimensions,
+                                                   Set<TemperatureAggregationMetric> metrics,
+                                                   LocalDate startDate, LocalDate endDate, String source) {
+        log.info("Agregacja odczytów: wymiary={}, metryki={}, zakres {} - {}", dimensions, metrics, startDate, endDate);
+
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new InvalidTemperatureDataException("Data początkowa nie może być późniejsza niż data końcowa");
+        }
+
+        List<Object[]> results = columnStore.isEnabled()
+                ? columnStore.aggregate(List.copyOf(dimensions), startDate, endDate, source)
+                : null;
+        if (results == null) {
+            results = queryDatabase(dimensions, startDate, endDate, source);
+        }
+
+        List<TemperatureAggregateRow> rows = new ArrayList<>();
+        for (Object[] result : results) {
+            long count = ((Number) result[dimensions.size()]).longValue();
+            if (count == 0) continue;
+            rows.add(toRow(dimensions, metrics, result, count));
+        }
+        return rows;
+    }
+
+    List<Object[]> queryDatabase(Set<TemperatureAggregationDimension> dimensions,
+                                 LocalDate startDate, LocalDate endDate, String source) {
+        String groupExpressions = dimensions.stream()
+                .map(TemperatureAggregationDimension::getExpression)
+                .collect(Collectors.joining(", "));
+
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        if (!dimensions.isEmpty()) {
+            jpql.append(groupExpressions).append(", ");
+        }
+        jpql.append("COUNT(t), MIN(t.temperature), MAX(t.temperature), SUM(t.temperature), ")
+                .append("SUM(t.temperature * t.temperature) FROM TemperatureReading t WHERE 1 = 1");
+        if (startDate != null) jpql.append(" AND t.date >= :startDate");
+        if (endDate != null) jpql.append(" AND t.date <= :endDate");
+        if (source != null) jpql.append(" AND t.source = :source");
+        if (!dimensions.isEmpty()) {
+            jpql.append(" GROUP BY ").append(groupExpressions).append(" ORDER BY ").append(groupExpressions);
+        }
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (startDate != null) query.setParameter("startDate", startDate);
+        if (endDate != null) query.setParameter("endDate", endDate);
+        if (source != null) query.setParameter("source", source);
+        return query.getResultList();
+    }
+
+    private static TemperatureAggregateRow toRow(Set<TemperatureAggregationDimension> dimensions,
+                                                 Set<TemperatureAggregationMetric> metrics,
+                                                 Object[] result, long count) {
+        Map<String, Object> group = new LinkedHashMap<>();
+        int column = 0;
+        for (TemperatureAggregationDimension dimension : dimensions) {
+            group.put(dimension.getKey(), dimension.toKey(result[column++]));
+        }
+
+        double min = ((Number) result[column + 1]).doubleValue();
+        double max = ((Number) result[column + 2]).doubleValue();
+        double sum = ((Number) result[column + 3]).doubleValue();
+        double sumOfSquares = ((Number) result[column + 4]).doubleValue();
+        double mean = sum / count;
+        double variance = Math.max(0.0, sumOfSquares / count - mean * mean);
+
+        return TemperatureAggregateRow.builder()
+                .group(group)
+                .count(metrics.contains(TemperatureAggregationMetric.COUNT) ? count : null)
+                .minTemperature(metrics.contains(TemperatureAggregationMetric.MIN) ? min : null)
+                .maxTemperature(metrics.contains(TemperatureAggregationMetric.MAX) ? max : null)
+                .averageTemperature(metrics.contains(TemperatureAggregationMetric.AVG) ? round(mean) : null)
+                .standardDeviation(metrics.contains(TemperatureAggregationMetric.STDDEV) ? round(Math.sqrt(variance)) : null)
+                .build();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
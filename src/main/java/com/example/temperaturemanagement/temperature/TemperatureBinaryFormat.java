@@ -0,0 +1,493 @@
+package com.example.temperaturemanagement.temperature;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binarny format wymiany odczytów (date, dayOfWeek, hour, temperature, source) między instancjami.
+ *
+ * <p>Plik to nagłówek {@code TMPB} + wersja, a potem bloki po co najwyżej {@value #BLOCK_READINGS} odczytów,
+ * zakończone blokiem pustym. Blok: liczba odczytów (int), długość treści (int), treść, CRC32 liczby,
+ * długości i treści (int). Treść zaczyna się słownikiem źródeł bloku, po nim strumień bitów:
+ * <ul>
+ *     <li>czas (sekundy od epoki z daty i godziny) - pierwszy surowo, kolejne jako delta delty
+ *     w przedziałach 1/7/9/12/64 bitów,</li>
+ *     <li>dzień tygodnia - 1 bit, gdy zgadza się z datą, inaczej 1 + 3 bity,</li>
+ *     <li>temperatura - XOR z poprzednią wartością jak w Gorilli (0 = bez zmian, okno wiodących
+ *     i końcowych zer powtarzane lub zapisane na nowo),</li>
+ *     <li>źródło - 1 bit, gdy takie jak poprzednie, inaczej kod ze słownika (0 = brak źródła).</li>
+ * </ul>
+ * Bloki są niezależne, więc oba kierunki są strumieniowe, a blok z błędną sumą kontrolną można pominąć.
+ * Godzina zapisywana jest z dokładnością do sekundy - tak jak w CSV.
+ */
+public final class TemperatureBinaryFormat {
+
+    public static final String CONTENT_TYPE = "application/x-temperature-series";
+
+    static final int BLOCK_READINGS = 4096;
+
+    private static final byte[] MAGIC = {'T', 'M', 'P', 'B'};
+    private static final int VERSION = 1;
+    private static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private TemperatureBinaryFormat() {
+    }
+
+    /**
+     * Zapis do strumienia; {@link #finish()} domyka ostatni blok i dopisuje znacznik końca.
+     * Strumień docelowy nie jest zamykany.
+     */
+    public static final class Writer {
+
+        private final DataOutputStream output;
+        private final BlockEncoder encoder = new BlockEncoder();
+        private final CRC32 crc = new CRC32();
+
+        public Writer(OutputStream outputStream) throws IOException {
+            this.output = new DataOutputStream(outputStream);
+            output.write(MAGIC);
+            output.writeByte(VERSION);
+        }
+
+        public void write(TemperatureReading reading) throws IOException {
+            encoder.encode(reading);
+            if (encoder.count == BLOCK_READINGS) {
+                writeBlock();
+            }
+        }
+
+        public void finish() throws IOException {
+            if (encoder.count > 0) {
+                writeBlock();
+            }
+            writeBlock(0, new byte[0], 0);
+            output.flush();
+        }
+
+        private void writeBlock() throws IOException {
+            byte[] payload = encoder.payload();
+            writeBlock(encoder.count, payload, payload.length);
+            encoder.reset();
+        }
+
+        private void writeBlock(int count, byte[] payload, int length) throws IOException {
+            output.writeInt(count);
+            output.writeInt(length);
+            output.write(payload, 0, length);
+            output.writeInt(checksum(crc, count, length, payload));
+        }
+    }
+
+    /**
+     * Odczyt blok po bloku. Blok z niezgodną sumą kontrolną jest pomijany w całości
+     * i zgłaszany jako {@link CorruptBlockException} - kolejne bloki można czytać dalej.
+     */
+    public static final class Reader {
+
+        private final DataInputStream input;
+        private final CRC32 crc = new CRC32();
+        private long block;
+        private boolean finished;
+
+        public Reader(InputStream inputStream) throws IOException {
+            this.input = new DataInputStream(inputStream);
+            byte[] magic = new byte[MAGIC.length];
+            try {
+                input.readFully(magic);
+                if (!Arrays.equals(magic, MAGIC) || input.readUnsignedByte() != VERSION) {
+                    throw new IOException("Nieprawidłowy nagłówek pliku binarnego");
+                }
+            } catch (EOFException e) {
+                throw new IOException("Nieprawidłowy nagłówek pliku binarnego", e);
+            }
+        }
+
+        /**
+         * Dodaje odczyty kolejnego bloku do {@code readings} i zwraca ich liczbę albo -1 po znaczniku końca.
+         */
+        public int readBlock(List<TemperatureReading> readings) throws IOException {
+            if (finished) {
+                return -1;
+            }
+            block++;
+            int count = input.readInt();
+            int length = input.readInt();
+            if (count < 0 || count > BLOCK_READINGS || length < 0 || length > MAX_PAYLOAD_BYTES) {
+                throw new IOException("Uszkodzony nagłówek bloku " + block);
+            }
+            byte[] payload = new byte[length];
+            input.readFully(payload);
+            if (input.readInt() != checksum(crc, count, length, payload)) {
+                throw new CorruptBlockException(block, count);
+            }
+            if (count == 0) {
+                finished = true;
+                return -1;
+            }
+            new BlockDecoder(payload).decode(count, readings);
+            return count;
+        }
+    }
+
+    public static final class CorruptBlockException extends IOException {
+
+        private final int readings;
+
+        CorruptBlockException(long block, int readings) {
+            super("Błąd sumy kontrolnej w bloku " + block);
+            this.readings = readings;
+        }
+
+        // Liczba odczytów zadeklarowana w nagłówku pominiętego bloku
+        public int getReadings() {
+            return readings;
+        }
+    }
+
+    private static int checksum(CRC32 crc, int count, int length, byte[] payload) {
+        crc.reset();
+        crc.update(count >>> 24);
+        crc.update(count >>> 16);
+        crc.update(count >>> 8);
+        crc.update(count);
+        crc.update(length >>> 24);
+        crc.update(length >>> 16);
+        crc.update(length >>> 8);
+        crc.update(length);
+        crc.update(payload, 0, length);
+        return (int) crc.getValue();
+    }
+
+    private static final class BlockEncoder {
+
+        private final BitOutput bits = new BitOutput();
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int count;
+        private long previousTime;
+        private long previousDelta;
+        private long previousTemperature;
+        private int previousLeading = -1;
+        private int previousTrailing;
+        private int previousSource;
+
+        void encode(TemperatureReading reading) {
+            long time = reading.getDate().toEpochDay() * SECONDS_PER_DAY + reading.getHour().toSecondOfDay();
+            long temperature = Double.doubleToLongBits(reading.getTemperature());
+            if (count == 0) {
+                bits.write(time, 64);
+                bits.write(temperature, 64);
+            } else {
+                long delta = time - previousTime;
+                writeDeltaOfDelta(delta - previousDelta);
+                previousDelta = delta;
+            }
+            writeDayOfWeek(reading);
+            if (count > 0) {
+                writeTemperature(temperature);
+            }
+            writeSource(reading.getSource());
+            previousTime = time;
+            previousTemperature = temperature;
+            count++;
+        }
+
+        private void writeDeltaOfDelta(long deltaOfDelta) {
+            if (deltaOfDelta == 0) {
+                bits.write(0b0, 1);
+            } else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+                bits.write(0b10, 2);
+                bits.write(deltaOfDelta + 63, 7);
+            } else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+                bits.write(0b110, 3);
+                bits.write(deltaOfDelta + 255, 9);
+            } else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+                bits.write(0b1110, 4);
+                bits.write(deltaOfDelta + 2047, 12);
+            } else {
+                bits.write(0b1111, 4);
+                bits.write(deltaOfDelta, 64);
+            }
+        }
+
+        private void writeDayOfWeek(TemperatureReading reading) {
+            if (reading.getDayOfWeek() == reading.getDate().getDayOfWeek().getValue()) {
+                bits.write(0b0, 1);
+            } else {
+                bits.write(0b1, 1);
+                bits.write(reading.getDayOfWeek(), 3);
+            }
+        }
+
+        private void writeTemperature(long temperature) {
+            long xor = temperature ^ previousTemperature;
+            if (xor == 0) {
+                bits.write(0b0, 1);
+                return;
+            }
+            bits.write(0b1, 1);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                bits.write(0b0, 1);
+                bits.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                return;
+            }
+            int significant = 64 - leading - trailing;
+            bits.write(0b1, 1);
+            bits.write(leading, 5);
+            bits.write(significant - 1, 6);
+            bits.write(xor >>> trailing, significant);
+            previousLeading = leading;
+            previousTrailing = trailing;
+        }
+
+        private void writeSource(String source) {
+            // Słownik rośnie w kolejności pierwszego użycia, więc nowe źródło ma zawsze kod o jeden większy
+            int introduced = dictionary.size();
+            int code = source == null ? 0 : codes.computeIfAbsent(source, key -> {
+                dictionary.add(key);
+                return dictionary.size();
+            });
+            if (code == previousSource) {
+                bits.write(0b0, 1);
+                return;
+            }
+            bits.write(0b1, 1);
+            bits.write(code, sourceCodeBits(introduced + 1));
+            previousSource = code;
+        }
+
+        byte[] payload() {
+            ByteSink sink = new ByteSink();
+            sink.writeVarInt(dictionary.size());
+            for (String source : dictionary) {
+                byte[] utf8 = source.getBytes(StandardCharsets.UTF_8);
+                sink.writeVarInt(utf8.length);
+                sink.write(utf8, utf8.length);
+            }
+            bits.writeTo(sink);
+            return sink.toByteArray();
+        }
+
+        void reset() {
+            bits.reset();
+            codes.clear();
+            dictionary.clear();
+            count = 0;
+            previousDelta = 0;
+            previousLeading = -1;
+            previousTrailing = 0;
+            previousSource = 0;
+        }
+    }
+
+    private static final class BlockDecoder {
+
+        private final byte[] payload;
+        private int position;
+
+        BlockDecoder(byte[] payload) {
+            this.payload = payload;
+        }
+
+        void decode(int count, List<TemperatureReading> readings) throws IOException {
+            int sources = readVarInt();
+            String[] dictionary = new String[sources + 1];
+            for (int i = 1; i <= sources; i++) {
+                int length = readVarInt();
+                if (length > payload.length - position) {
+                    throw new IOException("Uszkodzony słownik źródeł");
+                }
+                dictionary[i] = new String(payload, position, length, StandardCharsets.UTF_8);
+                position += length;
+            }
+
+            BitInput bits = new BitInput(payload, position);
+            long time = 0;
+            long delta = 0;
+            long temperature = 0;
+            int leading = 0;
+            int trailing = 0;
+            int source = 0;
+            int introduced = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0) {
+                    time = bits.read(64);
+                    temperature = bits.read(64);
+                } else {
+                    delta += readDeltaOfDelta(bits);
+                    time += delta;
+                }
+                LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(time, SECONDS_PER_DAY));
+                int dayOfWeek = bits.read(1) == 0 ? date.getDayOfWeek().getValue() : (int) bits.read(3);
+                if (i > 0 && bits.read(1) == 1) {
+                    if (bits.read(1) == 1) {
+                        leading = (int) bits.read(5);
+                        trailing = 64 - leading - ((int) bits.read(6) + 1);
+                    }
+                    temperature ^= bits.read(64 - leading - trailing) << trailing;
+                }
+                if (bits.read(1) == 1) {
+                    source = (int) bits.read(sourceCodeBits(introduced + 1));
+                    if (source > sources || source > introduced + 1) {
+                        throw new IOException("Nieznany kod źródła: " + source);
+                    }
+                    if (source == introduced + 1) {
+                        introduced++;
+                    }
+                }
+                readings.add(TemperatureReading.builder()
+                        .date(date)
+                        .dayOfWeek(dayOfWeek)
+                        .hour(LocalTime.ofSecondOfDay(Math.floorMod(time, SECONDS_PER_DAY)))
+                        .temperature(Double.longBitsToDouble(temperature))
+                        .source(dictionary[source])
+                        .build());
+            }
+        }
+
+        private static long readDeltaOfDelta(BitInput bits) throws IOException {
+            if (bits.read(1) == 0) return 0;
+            if (bits.read(1) == 0) return bits.read(7) - 63;
+            if (bits.read(1) == 0) return bits.read(9) - 255;
+            if (bits.read(1) == 0) return bits.read(12) - 2047;
+            return bits.read(64);
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (position >= payload.length) {
+                    throw new IOException("Nieoczekiwany koniec bloku");
+                }
+                int b = payload[position++];
+                value |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Nieprawidłowa liczba w bloku");
+        }
+    }
+
+    // Kody 0..maxCode (0 = brak źródła)
+    private static int sourceCodeBits(int maxCode) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxCode));
+    }
+
+    private static final class BitOutput {
+
+        private final ByteSink bytes = new ByteSink();
+        private int current;
+        private int filled;
+
+        void write(long value, int count) {
+            while (count > 0) {
+                int n = Math.min(8 - filled, count);
+                int chunk = (int) (value >>> (count - n)) & ((1 << n) - 1);
+                current = (current << n) | chunk;
+                filled += n;
+                count -= n;
+                if (filled == 8) {
+                    bytes.write(current);
+                    current = 0;
+                    filled = 0;
+                }
+            }
+        }
+
+        void writeTo(ByteSink sink) {
+            sink.write(bytes.buffer, bytes.size);
+            if (filled > 0) {
+                sink.write(current << (8 - filled));
+            }
+        }
+
+        void reset() {
+            bytes.size = 0;
+            current = 0;
+            filled = 0;
+        }
+    }
+
+    private static final class BitInput {
+
+        private final byte[] payload;
+        private int position;
+        private int current;
+        private int remaining;
+
+        BitInput(byte[] payload, int position) {
+            this.payload = payload;
+            this.position = position;
+        }
+
+        long read(int count) throws IOException {
+            long value = 0;
+            while (count > 0) {
+                if (remaining == 0) {
+                    if (position >= payload.length) {
+                        throw new IOException("Nieoczekiwany koniec bloku");
+                    }
+                    current = payload[position++] & 0xff;
+                    remaining = 8;
+                }
+                int n = Math.min(remaining, count);
+                value = (value << n) | ((current >>> (remaining - n)) & ((1 << n) - 1));
+                remaining -= n;
+                count -= n;
+            }
+            return value;
+        }
+    }
+
+    private static final class ByteSink {
+
+        private byte[] buffer = new byte[4096];
+        private int size;
+
+        void write(int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void write(byte[] bytes, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, 0, buffer, size, length);
+            size += length;
+        }
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7f) != 0) {
+                write((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureBulkResult {
+
+    private long affectedRows;
+    private long durationMillis;
+}
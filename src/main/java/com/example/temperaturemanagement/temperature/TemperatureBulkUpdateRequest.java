@@ -0,0 +1,29 @@
+package com.example.temperaturemanagement.temperature;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Zmiana wszystkich odczytów spełniających kryteria z parametrów żądania - dokładnie jedno pole.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureBulkUpdateRequest {
+
+    // Przesunięcie temperatury, np. korekta źle skalibrowanego czujnika
+    @DecimalMin(value = "-200.0", message = "Przesunięcie temperatury musi być od -200 do 200°C")
+    @DecimalMax(value = "200.0", message = "Przesunięcie temperatury musi być od -200 do 200°C")
+    private Double temperatureOffset;
+
+    @DecimalMin(value = "-100.0", message = "Temperatura nie może być niższa niż -100°C")
+    @DecimalMax(value = "100.0", message = "Temperatura nie może być wyższa niż 100°C")
+    private Double temperature;
+
+    @Size(max = 50, message = "Źródło nie może być dłuższe niż 50 znaków")
+    private String source;
+}
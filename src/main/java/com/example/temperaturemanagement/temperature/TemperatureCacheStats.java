@@ -0,0 +1,23 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureCacheStats {
+
+    private boolean enabled;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long evictionWeight;
+    private long cachedDates;
+    private long cachedReadings;
+    private long maxWeight;
+}
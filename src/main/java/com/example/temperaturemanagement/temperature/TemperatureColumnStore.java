@@ -0,0 +1,660 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Kolumnowa replika odczytów do zapytań: zamiast encji z opakowanymi liczbami, dwoma LocalDateTime i napisem
+ * każdy odczyt to kilka komórek tablic prymitywów (~41 B). Odczyty są pogrupowane w bloki po dacie
+ * (dzień epoki → blok), w bloku posortowane po (godzina, id), więc całość jest uporządkowana tak jak
+ * stronicowanie keyset. Źródła są kodowane słownikiem (0 = brak źródła).
+ *
+ * <p>Blok jest niezmienny: zapis buduje nowy blok zmienionej daty i podmienia go w mapie, więc odczyty
+ * nie blokują się wcale. Nowy blok powstaje przez scalenie - posortowane są tylko odczyty dodane zapisem,
+ * a poprzedni blok (już uporządkowany) jest kopiowany jednym przebiegiem, z pominięciem usuniętych.
+ * Strony, średnia i ostatni odczyt dnia oraz agregacje /aggregate to pętle po tablicach;
+ * widoki powstają tylko dla odczytów, które trafiają do odpowiedzi. Replika jest aktualizowana po zatwierdzeniu
+ * zmiany, tak jak statystyki w pamięci.
+ */
+@Component
+@Slf4j
+public class TemperatureColumnStore implements SmartInitializingSingleton, MeterBinder {
+
+    // Układ obiektów 64-bitowej JVM ze skompresowanymi wskaźnikami: nagłówek tablicy 16 B, wyrównanie do 8 B;
+    // obiekt bloku (nagłówek, int, 7 referencji) i wpis w mapie dat z kluczem Integer
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int BLOCK_OBJECT_BYTES = 48;
+    private static final int MAP_ENTRY_BYTES = 48;
+
+    private static final String SELECT_READINGS = "SELECT id, date, day_of_week, reading_hour, temperature, source, "
+            + "created_at, updated_at FROM temperature_readings ORDER BY date, reading_hour, id";
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentSkipListMap<Integer, DateBlock> blocks = new ConcurrentSkipListMap<>();
+    private final Map<String, Integer> sourceCodes = new ConcurrentHashMap<>();
+    private volatile String[] sourceNames = {null};
+
+    public TemperatureColumnStore(TemperatureProperties properties, JdbcTemplate jdbcTemplate) {
+        this.enabled = properties.getColumnar().isEnabled();
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Jeden sekwencyjny odczyt tabeli przez JDBC, bez encji - wiersze przychodzą już w kolejności bloków
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        blocks.clear();
+        BlockBuilder[] current = {null};
+        jdbcTemplate.query(SELECT_READINGS, resultSet -> {
+            int day = (int) resultSet.getObject(2, LocalDate.class).toEpochDay();
+            if (current[0] == null || current[0].epochDay != day) {
+                publish(current[0]);
+                current[0] = new BlockBuilder(day);
+            }
+            current[0].add(resultSet.getLong(1), resultSet.getObject(4, LocalTime.class).toSecondOfDay(),
+                    resultSet.getInt(3), resultSet.getDouble(5), sourceCode(resultSet.getString(6)),
+                    TemperatureSegmentLog.micros(resultSet.getObject(7, LocalDateTime.class)),
+                    TemperatureSegmentLog.micros(resultSet.getObject(8, LocalDateTime.class)));
+        });
+        publish(current[0]);
+
+        TemperatureColumnStoreStats stats = stats();
+        log.info("Replika kolumnowa zbudowana: {} odczytów w {} datach, {} B na odczyt",
+                stats.getReadings(), stats.getDates(), stats.getBytesPerReading());
+    }
+
+    @Order(TemperatureReadingsChangedEvent.DERIVED_STATE_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReadingsChanged(TemperatureReadingsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Map<Integer, Set<Long>> removed = new HashMap<>();
+        Map<Integer, List<TemperatureReading>> added = new HashMap<>();
+        event.getRemoved().forEach(reading ->
+                removed.computeIfAbsent(epochDay(reading.getDate()), day -> new HashSet<>()).add(reading.getId()));
+        event.getAdded().forEach(reading ->
+                added.computeIfAbsent(epochDay(reading.getDate()), day -> new ArrayList<>()).add(reading));
+
+        Set<Integer> days = new HashSet<>(removed.keySet());
+        days.addAll(added.keySet());
+        for (int day : days) {
+            BlockBuilder builder = new BlockBuilder(day);
+            for (TemperatureReading reading : added.getOrDefault(day, List.of())) {
+                builder.add(reading.getId(), reading.getHour().toSecondOfDay(), reading.getDayOfWeek(),
+                        reading.getTemperature(), sourceCode(reading.getSource()),
+                        TemperatureSegmentLog.micros(reading.getCreatedAt()),
+                        TemperatureSegmentLog.micros(reading.getUpdatedAt()));
+            }
+            DateBlock block = builder.mergeInto(blocks.get(day), removed.getOrDefault(day, Set.of()));
+            if (block.size() == 0) {
+                blocks.remove(day);
+            } else {
+                blocks.put(day, block);
+            }
+        }
+    }
+
+    /**
+     * Odczyty w porządku (data, godzina, id) po pozycji kursora - najwyżej {@code limit}, jako widoki.
+     */
+    public List<TemperatureReadingView> page(String source, LocalDate startDate, LocalDate endDate,
+                                             TemperatureCursor after, int limit) {
+        int sourceCode = sourceFilter(source);
+        if (sourceCode < 0) {
+            return List.of();
+        }
+        int from = startDate != null ? epochDay(startDate) : Integer.MIN_VALUE;
+        if (after != null) {
+            from = Math.max(from, epochDay(after.getDate()));
+        }
+        int to = endDate != null ? epochDay(endDate) : Integer.MAX_VALUE;
+        if (from > to) {
+            return List.of();
+        }
+
+        List<TemperatureReadingView> rows = new ArrayList<>(Math.min(limit, 1024));
+        for (DateBlock block : blocks.subMap(from, true, to, true).values()) {
+            int start = after != null && block.epochDay == epochDay(after.getDate())
+                    ? block.firstAfter(after.getHour().toSecondOfDay(), after.getId())
+                    : 0;
+            for (int i = start; i < block.size(); i++) {
+                if (sourceCode > 0 && block.sources[i] != sourceCode) {
+                    continue;
+                }
+                // Słownik czytany po bloku - nowe źródło trafia do słownika przed blokiem, który go używa
+                rows.add(block.toView(i, sourceNames));
+                if (rows.size() == limit) {
+                    return rows;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Średnia temperatura dnia albo null, gdy dzień nie ma odczytów.
+     */
+    public Double averageForDate(LocalDate date) {
+        DateBlock block = blocks.get(epochDay(date));
+        if (block == null) {
+            return null;
+        }
+        double sum = 0.0;
+        for (double temperature : block.temperatures) {
+            sum += temperature;
+        }
+        return sum / block.size();
+    }
+
+    /**
+     * Ostatni odczyt dnia w porządku (godzina, id) albo null.
+     */
+    public TemperatureReadingView latestForDate(LocalDate date) {
+        DateBlock block = blocks.get(epochDay(date));
+        return block == null ? null : block.toView(block.size() - 1, sourceNames);
+    }
+
+    /**
+     * Agregacja w układzie wierszy zapytania GROUP BY z {@link TemperatureAggregationService}: wartości wymiarów,
+     * COUNT, MIN, MAX, SUM, SUM kwadratów; posortowana po wymiarach. Klucz grupy to liczba w systemie mieszanym
+     * (podstawa każdego wymiaru to jego liczba możliwych wartości w zakresie), więc pętla nie tworzy obiektów.
+     * Zwraca null, gdy iloczyn podstaw nie mieści się w long - wtedy agreguje baza.
+     */
+    public List<Object[]> aggregate(List<TemperatureAggregationDimension> dimensions,
+                                    LocalDate startDate, LocalDate endDate, String source) {
+        int sourceCode = sourceFilter(source);
+        int from = startDate != null ? epochDay(startDate) : Integer.MIN_VALUE;
+        int to = endDate != null ? epochDay(endDate) : Integer.MAX_VALUE;
+        NavigableMap<Integer, DateBlock> range = from > to ? Collections.emptyNavigableMap() : blocks.subMap(from, true, to, true);
+        if (sourceCode < 0 || range.isEmpty()) {
+            return List.of();
+        }
+
+        int firstDay = range.firstKey();
+        int lastDay = range.lastKey();
+        int firstMonth = monthIndex(firstDay);
+        String[] names = sourceNames;
+        int[] ranks = sourceRanks(names);
+
+        int dimensionCount = dimensions.size();
+        TemperatureAggregationDimension[] dims = dimensions.toArray(new TemperatureAggregationDimension[0]);
+        long[] radix = new long[dimensionCount];
+        try {
+            long combinations = 1;
+            for (int d = 0; d < dimensionCount; d++) {
+                radix[d] = switch (dims[d]) {
+                    case HOUR -> 86_400;
+                    case DAY_OF_WEEK -> 8;
+                    case SOURCE -> names.length;
+                    case DAY -> lastDay - firstDay + 1L;
+                    case WEEK -> lastDay - firstDay + 7L;
+                    case MONTH -> monthIndex(lastDay) - firstMonth + 1L;
+                };
+                combinations = Math.multiplyExact(combinations, radix[d]);
+            }
+        } catch (ArithmeticException e) {
+            return null;
+        }
+
+        GroupTable groups = new GroupTable();
+        for (DateBlock block : range.values()) {
+            int day = block.epochDay - firstDay;
+            // Poniedziałek tygodnia ISO samej daty, jak w wyrażeniu JPQL; +6 przesuwa najwcześniejszy na 0
+            int week = day - Math.floorMod(block.epochDay + 3, 7) + 6;
+            int month = monthIndex(block.epochDay) - firstMonth;
+            for (int i = 0; i < block.size(); i++) {
+                // Odczyt z źródłem nowszym niż słownik z początku zapytania został zapisany już w jego trakcie
+                if (sourceCode > 0 && block.sources[i] != sourceCode || block.sources[i] >= names.length) {
+                    continue;
+                }
+                long key = 0;
+                for (int d = 0; d < dimensionCount; d++) {
+                    long component = switch (dims[d]) {
+                        case HOUR -> block.seconds[i];
+                        case DAY_OF_WEEK -> block.daysOfWeek[i];
+                        case SOURCE -> ranks[block.sources[i]];
+                        case DAY -> day;
+                        case WEEK -> week;
+                        case MONTH -> month;
+                    };
+                    key = key * radix[d] + component;
+                }
+                groups.add(key, block.temperatures[i]);
+            }
+        }
+
+        String[] namesByRank = new String[names.length];
+        for (int code = 0; code < names.length; code++) {
+            namesByRank[ranks[code]] = names[code];
+        }
+        return groups.rows(dims, radix, firstDay, firstMonth, namesByRank);
+    }
+
+    public TemperatureColumnStoreStats stats() {
+        long readings = 0;
+        long dates = 0;
+        long arrayBytes = 0;
+        for (DateBlock block : blocks.values()) {
+            readings += block.size();
+            dates++;
+            arrayBytes += block.arrayBytes();
+        }
+        long bytes = arrayBytes + dates * (BLOCK_OBJECT_BYTES + MAP_ENTRY_BYTES);
+        return TemperatureColumnStoreStats.builder()
+                .enabled(enabled)
+                .readings(readings)
+                .dates(dates)
+                .sources(sourceNames.length - 1)
+                .arrayBytes(arrayBytes)
+                .bytes(bytes)
+                .bytesPerReading(readings > 0 ? Math.round(bytes * 10.0 / readings) / 10.0 : 0.0)
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("temperature.columnar.bytes", this, store -> store.stats().getBytes())
+                .description("Rozmiar repliki kolumnowej wyliczony z długości tablic bloków")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void publish(BlockBuilder builder) {
+        if (builder != null) {
+            blocks.put(builder.epochDay, builder.build());
+        }
+    }
+
+    // -1 = źródło nieznane (nic nie pasuje), 0 = bez filtra
+    private int sourceFilter(String source) {
+        if (source == null) {
+            return 0;
+        }
+        return sourceCodes.getOrDefault(source, -1);
+    }
+
+    private synchronized int sourceCode(String source) {
+        if (source == null) {
+            return 0;
+        }
+        Integer code = sourceCodes.get(source);
+        if (code == null) {
+            String[] names = Arrays.copyOf(sourceNames, sourceNames.length + 1);
+            code = names.length - 1;
+            names[code] = source;
+            sourceNames = names;
+            sourceCodes.put(source, code);
+        }
+        return code;
+    }
+
+    // Pozycja kodu źródła w porządku alfabetycznym (brak źródła pierwszy, jak NULL w ORDER BY H2)
+    private static int[] sourceRanks(String[] names) {
+        Integer[] codes = new Integer[names.length];
+        for (int code = 0; code < names.length; code++) {
+            codes[code] = code;
+        }
+        Arrays.sort(codes, 1, codes.length, (a, b) -> names[a].compareTo(names[b]));
+        int[] ranks = new int[names.length];
+        for (int rank = 0; rank < codes.length; rank++) {
+            ranks[codes[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return (ARRAY_HEADER_BYTES + (long) length * elementBytes + 7) & ~7L;
+    }
+
+    private static int epochDay(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private static int monthIndex(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Odczyty jednej daty jako kolumny, posortowane po (sekunda doby, id).
+     */
+    private static final class DateBlock {
+        private final int epochDay;
+        private final long[] ids;
+        private final int[] seconds;
+        private final byte[] daysOfWeek;
+        private final double[] temperatures;
+        private final int[] sources;
+        private final long[] createdMicros;
+        private final long[] updatedMicros;
+
+        private DateBlock(int epochDay, int size) {
+            this(epochDay, new long[size], new int[size], new byte[size], new double[size],
+                    new int[size], new long[size], new long[size]);
+        }
+
+        private DateBlock(int epochDay, long[] ids, int[] seconds, byte[] daysOfWeek, double[] temperatures,
+                          int[] sources, long[] createdMicros, long[] updatedMicros) {
+            this.epochDay = epochDay;
+            this.ids = ids;
+            this.seconds = seconds;
+            this.daysOfWeek = daysOfWeek;
+            this.temperatures = temperatures;
+            this.sources = sources;
+            this.createdMicros = createdMicros;
+            this.updatedMicros = updatedMicros;
+        }
+
+        private int size() {
+            return ids.length;
+        }
+
+        // Rzeczywiste długości tablic kolumn bloku, z nagłówkami i wyrównaniem
+        private long arrayBytes() {
+            return TemperatureColumnStore.arrayBytes(ids.length, Long.BYTES)
+                    + TemperatureColumnStore.arrayBytes(seconds.length, Integer.BYTES)
+                    + TemperatureColumnStore.arrayBytes(daysOfWeek.length, Byte.BYTES)
+                    + TemperatureColumnStore.arrayBytes(temperatures.length, Double.BYTES)
+                    + TemperatureColumnStore.arrayBytes(sources.length, Integer.BYTES)
+                    + TemperatureColumnStore.arrayBytes(createdMicros.length, Long.BYTES)
+                    + TemperatureColumnStore.arrayBytes(updatedMicros.length, Long.BYTES);
+        }
+
+        // Pierwsza pozycja większa od (second, id) - wyszukiwanie binarne
+        private int firstAfter(int second, long id) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (seconds[mid] < second || seconds[mid] == second && ids[mid] <= id) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private boolean before(int i, int second, long id) {
+            return seconds[i] < second || seconds[i] == second && ids[i] < id;
+        }
+
+        private void set(int i, long id, int second, byte dayOfWeek, double temperature, int source,
+                         long created, long updated) {
+            ids[i] = id;
+            seconds[i] = second;
+            daysOfWeek[i] = dayOfWeek;
+            temperatures[i] = temperature;
+            sources[i] = source;
+            createdMicros[i] = created;
+            updatedMicros[i] = updated;
+        }
+
+        private void copyTo(DateBlock target, int from, int to) {
+            target.set(to, ids[from], seconds[from], daysOfWeek[from], temperatures[from], sources[from],
+                    createdMicros[from], updatedMicros[from]);
+        }
+
+        private TemperatureReadingView toView(int i, String[] names) {
+            return new TemperatureReadingView(ids[i], LocalDate.ofEpochDay(epochDay), (int) daysOfWeek[i],
+                    LocalTime.ofSecondOfDay(seconds[i]), temperatures[i], names[sources[i]],
+                    TemperatureSegmentLog.timestamp(createdMicros[i]),
+                    TemperatureSegmentLog.timestamp(updatedMicros[i]));
+        }
+    }
+
+    private static final class BlockBuilder {
+        private final int epochDay;
+        private int size;
+        private long[] ids = new long[16];
+        private int[] seconds = new int[16];
+        private byte[] daysOfWeek = new byte[16];
+        private double[] temperatures = new double[16];
+        private int[] sources = new int[16];
+        private long[] createdMicros = new long[16];
+        private long[] updatedMicros = new long[16];
+
+        private BlockBuilder(int epochDay) {
+            this.epochDay = epochDay;
+        }
+
+        private void add(long id, int second, int dayOfWeek, double temperature, int source, long created, long updated) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                seconds = Arrays.copyOf(seconds, capacity);
+                daysOfWeek = Arrays.copyOf(daysOfWeek, capacity);
+                temperatures = Arrays.copyOf(temperatures, capacity);
+                sources = Arrays.copyOf(sources, capacity);
+                createdMicros = Arrays.copyOf(createdMicros, capacity);
+                updatedMicros = Arrays.copyOf(updatedMicros, capacity);
+            }
+            ids[size] = id;
+            seconds[size] = second;
+            daysOfWeek[size] = (byte) dayOfWeek;
+            temperatures[size] = temperature;
+            sources[size] = source;
+            createdMicros[size] = created;
+            updatedMicros[size] = updated;
+            size++;
+        }
+
+        // Tablice przycięte do rozmiaru - wiersze dodane już w kolejności (sekunda doby, id)
+        private DateBlock build() {
+            return new DateBlock(epochDay, Arrays.copyOf(ids, size), Arrays.copyOf(seconds, size),
+                    Arrays.copyOf(daysOfWeek, size), Arrays.copyOf(temperatures, size), Arrays.copyOf(sources, size),
+                    Arrays.copyOf(createdMicros, size), Arrays.copyOf(updatedMicros, size));
+        }
+
+        /**
+         * Nowy blok daty: odczyty {@code base} bez {@code removedIds} scalone z odczytami tego buildera.
+         * Sortowane są tylko dodane odczyty (k log k), a scalenie to jeden przebieg po obu częściach.
+         */
+        private DateBlock mergeInto(DateBlock base, Set<Long> removedIds) {
+            int[] order = sortedOrder();
+            int baseSize = base == null ? 0 : base.size();
+            int kept = baseSize;
+            for (int i = 0; i < baseSize && !removedIds.isEmpty(); i++) {
+                if (removedIds.contains(base.ids[i])) {
+                    kept--;
+                }
+            }
+            DateBlock block = new DateBlock(epochDay, kept + size);
+            int next = 0;
+            int from = 0;
+            for (int i = 0; i < baseSize; i++) {
+                if (!removedIds.isEmpty() && removedIds.contains(base.ids[i])) {
+                    continue;
+                }
+                while (from < size && !base.before(i, seconds[order[from]], ids[order[from]])) {
+                    copyTo(block, order[from++], next++);
+                }
+                base.copyTo(block, i, next++);
+            }
+            while (from < size) {
+                copyTo(block, order[from++], next++);
+            }
+            return block;
+        }
+
+        private void copyTo(DateBlock block, int from, int to) {
+            block.set(to, ids[from], seconds[from], daysOfWeek[from], temperatures[from], sources[from],
+                    createdMicros[from], updatedMicros[from]);
+        }
+
+        // Indeksy wierszy w kolejności (sekunda doby, id) - sortowanie przez scalanie na tablicy int, bez opakowań
+        private int[] sortedOrder() {
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            int[] buffer = new int[size];
+            for (int width = 1; width < size; width *= 2) {
+                for (int low = 0; low < size - width; low += 2 * width) {
+                    int middle = low + width;
+                    int high = Math.min(low + 2 * width, size);
+                    if (!after(order[middle - 1], order[middle])) {
+                        continue;
+                    }
+                    int left = low;
+                    int right = middle;
+                    for (int k = low; k < high; k++) {
+                        buffer[k] = right >= high || left < middle && !after(order[left], order[right])
+                                ? order[left++]
+                                : order[right++];
+                    }
+                    System.arraycopy(buffer, low, order, low, high - low);
+                }
+            }
+            return order;
+        }
+
+        private boolean after(int a, int b) {
+            return seconds[a] != seconds[b] ? seconds[a] > seconds[b] : ids[a] > ids[b];
+        }
+    }
+
+    /**
+     * Tablica haszująca z adresowaniem otwartym: klucz grupy → COUNT, MIN, MAX, SUM, SUM kwadratów w tablicach.
+     */
+    private static final class GroupTable {
+        private long[] keys = new long[64];
+        private long[] counts = new long[64];
+        private double[] mins = new double[64];
+        private double[] maxs = new double[64];
+        private double[] sums = new double[64];
+        private double[] squares = new double[64];
+        private int size;
+
+        private void add(long key, double temperature) {
+            int slot = slot(keys, counts, key);
+            if (counts[slot] == 0) {
+                if (size * 2 >= keys.length) {
+                    grow();
+                    slot = slot(keys, counts, key);
+                }
+                keys[slot] = key;
+                mins[slot] = temperature;
+                maxs[slot] = temperature;
+                size++;
+            } else {
+                mins[slot] = Math.min(mins[slot], temperature);
+                maxs[slot] = Math.max(maxs[slot], temperature);
+            }
+            counts[slot]++;
+            sums[slot] += temperature;
+            squares[slot] += temperature * temperature;
+        }
+
+        private static int slot(long[] keys, long[] counts, long key) {
+            int mask = keys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (counts[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldCounts = counts;
+            double[] oldMins = mins;
+            double[] oldMaxs = maxs;
+            double[] oldSums = sums;
+            double[] oldSquares = squares;
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            counts = new long[capacity];
+            mins = new double[capacity];
+            maxs = new double[capacity];
+            sums = new double[capacity];
+            squares = new double[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldCounts[i] != 0) {
+                    int slot = slot(keys, counts, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                    mins[slot] = oldMins[i];
+                    maxs[slot] = oldMaxs[i];
+                    sums[slot] = oldSums[i];
+                    squares[slot] = oldSquares[i];
+                }
+            }
+        }
+
+        private List<Object[]> rows(TemperatureAggregationDimension[] dims, long[] radix,
+                                    int firstDay, int firstMonth, String[] namesByRank) {
+            // Klucz w systemie mieszanym rośnie tak jak porządek wymiarów - sortowanie kluczy = ORDER BY wymiarów
+            Integer[] slots = new Integer[size];
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (counts[i] != 0) {
+                    slots[n++] = i;
+                }
+            }
+            Arrays.sort(slots, (a, b) -> Long.compare(keys[a], keys[b]));
+
+            List<Object[]> rows = new ArrayList<>(size);
+            for (int slot : slots) {
+                Object[] row = new Object[dims.length + 5];
+                long rest = keys[slot];
+                for (int d = dims.length - 1; d >= 0; d--) {
+                    int component = (int) (rest % radix[d]);
+                    rest /= radix[d];
+                    row[d] = switch (dims[d]) {
+                        case HOUR -> LocalTime.ofSecondOfDay(component);
+                        case DAY_OF_WEEK -> component;
+                        case SOURCE -> namesByRank[component];
+                        case DAY -> LocalDate.ofEpochDay(firstDay + component);
+                        case WEEK -> LocalDate.ofEpochDay(firstDay + component - 6L);
+                        case MONTH -> {
+                            int month = firstMonth + component;
+                            yield (month / 12) * 100 + month % 12 + 1;
+                        }
+                    };
+                }
+                row[dims.length] = counts[slot];
+                row[dims.length + 1] = mins[slot];
+                row[dims.length + 2] = maxs[slot];
+                row[dims.length + 3] = sums[slot];
+                row[dims.length + 4] = squares[slot];
+                rows.add(row);
+            }
+            return rows;
+        }
+    }
+}
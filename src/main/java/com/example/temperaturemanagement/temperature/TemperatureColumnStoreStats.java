@@ -0,0 +1,23 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureColumnStoreStats {
+
+    private boolean enabled;
+    private long readings;
+    private long dates;
+    private int sources;
+    // Tablice kolumn wszystkich bloków, policzone z ich długości
+    private long arrayBytes;
+    // Tablice kolumn razem z obiektami bloków i wpisami w mapie dat
+    private long bytes;
+    private double bytesPerReading;
+}
@@ -1,18 +1,27 @@
 package com.example.temperaturemanagement.temperature;
 
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/temperatures")
@@ -21,12 +30,27 @@ import java.util.Map;
 public class TemperatureController {
 
     private final TemperatureService temperatureService;
+    private final TemperatureExportService exportService;
+    private final TemperatureSeriesService seriesService;
+    private final TemperatureDailySummaryService dailySummaryService;
+    private final TemperatureForecastEngine forecastEngine;
+    private final TemperatureAggregationService aggregationService;
+    private final TemperatureDataVersion dataVersion;
+    private final TemperatureLiveFeed liveFeed;
+    private final TemperatureIngestQueue ingestQueue;
+    private final TemperatureDatabaseGate databaseGate;
 
-    // GET /api/temperatures - Pobierz wszystkie odczyty
+    // GET /api/temperatures - Pobierz odczyty (stronicowane, opcjonalne filtry)
     @GetMapping
-    public ResponseEntity<List<TemperatureReading>> getAllReadings() {
-        List<TemperatureReading> readings = temperatureService.getAllReadings();
-        return ResponseEntity.ok(readings);
+    public ResponseEntity<TemperaturePage<TemperatureReadingView>> getAllReadings(
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        TemperaturePage<TemperatureReadingView> page =
+                temperatureService.getReadingsPage(source, startDate, endDate, cursor, limit);
+        return ResponseEntity.ok(page);
     }
 
     // GET /api/temperatures/{id} - Pobierz konkretny odczyt
@@ -43,6 +67,25 @@ public class TemperatureController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    // POST /api/temperatures/ingest - Dodaj odczyt przez kolejkę zapisu (zapis paczkami)
+    @PostMapping("/ingest")
+    public ResponseEntity<TemperatureReading> ingestReading(
+            @Valid @RequestBody TemperatureCreateRequest request,
+            @RequestParam(required = false) String ack) {
+        TemperatureIngestAck ingestAck = ack != null ? TemperatureIngestAck.from(ack) : ingestQueue.defaultAck();
+        TemperatureReading saved = ingestQueue.ingest(request, ingestAck);
+        if (saved == null) {
+            return ResponseEntity.accepted().build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    }
+
+    // GET /api/temperatures/ingest/stats - Stan kolejki zapisu
+    @GetMapping("/ingest/stats")
+    public ResponseEntity<TemperatureIngestStats> getIngestStats() {
+        return ResponseEntity.ok(ingestQueue.stats());
+    }
+
     // PUT /api/temperatures/{id} - Aktualizuj odczyt
     @PutMapping("/{id}")
     public ResponseEntity<TemperatureReading> updateReading(
@@ -61,19 +104,104 @@ public class TemperatureController {
 
     // GET /api/temperatures/date/{date} - Odczyty dla konkretnej daty
     @GetMapping("/date/{date}")
-    public ResponseEntity<List<TemperatureReading>> getReadingsByDate(
+    public ResponseEntity<TemperaturePage<TemperatureReadingView>> getReadingsByDate(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (notModified(request, dataVersion.forDate(date))) {
+            return null;
+        }
+        TemperaturePage<TemperatureReadingView> page =
+                temperatureService.getReadingsPage(source, date, date, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    // GET /api/temperatures/date/{date}/latest - Ostatni odczyt z konkretnej daty
+    @GetMapping("/date/{date}/latest")
+    public ResponseEntity<TemperatureReadingView> getLatestReadingByDate(
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        List<TemperatureReading> readings = temperatureService.getReadingsByDate(date);
-        return ResponseEntity.ok(readings);
+        TemperatureReadingView reading = temperatureService.getLatestReadingByDate(date);
+        return ResponseEntity.ok(reading);
     }
 
     // GET /api/temperatures/range - Odczyty w zakresie dat
     @GetMapping("/range")
-    public ResponseEntity<List<TemperatureReading>> getReadingsByDateRange(
+    public ResponseEntity<TemperaturePage<TemperatureReadingView>> getReadingsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        TemperaturePage<TemperatureReadingView> page =
+                temperatureService.getReadingsPage(source, startDate, endDate, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    // DELETE /api/temperatures/range - Usuń odczyty w zakresie dat (opcjonalnie tylko z jednego źródła)
+    @DeleteMapping("/range")
+    public ResponseEntity<TemperatureBulkResult> deleteReadingsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String source) {
+        return ResponseEntity.ok(temperatureService.deleteReadings(startDate, endDate, source));
+    }
+
+    // PATCH /api/temperatures/range - Zmień odczyty w zakresie dat (przesunięcie temperatury, temperatura albo źródło)
+    @PatchMapping("/range")
+    public ResponseEntity<TemperatureBulkResult> updateReadingsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String source,
+            @Valid @RequestBody TemperatureBulkUpdateRequest request) {
+        return ResponseEntity.ok(temperatureService.updateReadings(startDate, endDate, source, request));
+    }
+
+    // GET /api/temperatures/range/series - Seria do wykresu z co najwyżej maxPoints punktów (bucket lub lttb)
+    @GetMapping("/range/series")
+    public ResponseEntity<TemperatureSeries> getSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(defaultValue = "bucket") String mode,
+            WebRequest request) {
+        TemperatureSeriesMode seriesMode = TemperatureSeriesMode.from(mode);
+        if (notModified(request, dataVersion.global())) {
+            return null;
+        }
+        TemperatureSeries series = seriesService.getSeries(startDate, endDate, seriesMode, maxPoints);
+        return ResponseEntity.ok(series);
+    }
+
+    // GET /api/temperatures/range/summary - Podsumowania dzienne w zakresie dat
+    @GetMapping("/range/summary")
+    public ResponseEntity<List<TemperatureDailySummaryResponse>> getDailySummaries(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<TemperatureReading> readings = temperatureService.getReadingsByDateRange(startDate, endDate);
-        return ResponseEntity.ok(readings);
+        List<TemperatureDailySummaryResponse> summaries = dailySummaryService.getDailySummaries(startDate, endDate);
+        return ResponseEntity.ok(summaries);
+    }
+
+    // GET /api/temperatures/export - Strumieniowy eksport zakresu dat (NDJSON, CSV lub binarny)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReadings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidTemperatureDataException("Data początkowa nie może być późniejsza niż data końcowa");
+        }
+        TemperatureExportFormat exportFormat = TemperatureExportFormat.from(format);
+        String fileName = "temperatures_" + startDate + "_" + endDate + "." + exportFormat.getFileExtension();
+
+        StreamingResponseBody body = outputStream ->
+                exportService.exportRange(startDate, endDate, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
     }
 
     // POST /api/temperatures/upload-csv - Upload pliku CSV
@@ -87,27 +215,132 @@ public class TemperatureController {
         }
     }
 
+    // POST /api/temperatures/upload-csv/stream - Strumieniowy import dużych plików CSV (mode=insert lub upsert)
+    @PostMapping("/upload-csv/stream")
+    public ResponseEntity<TemperatureImportSummary> uploadCsvStreaming(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "insert") String mode) {
+        TemperatureImportMode importMode = TemperatureImportMode.from(mode);
+        try {
+            TemperatureImportSummary summary = temperatureService.importFromCsvStreaming(file, importMode);
+            return ResponseEntity.ok(summary);
+        } catch (IOException e) {
+            throw new RuntimeException("Błąd podczas czytania pliku: " + e.getMessage(), e);
+        }
+    }
+
+    // POST /api/temperatures/upload-binary - Strumieniowy import pliku binarnego (mode=insert lub upsert)
+    @PostMapping("/upload-binary")
+    public ResponseEntity<TemperatureImportSummary> uploadBinary(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "insert") String mode) {
+        TemperatureImportMode importMode = TemperatureImportMode.from(mode);
+        try {
+            TemperatureImportSummary summary = temperatureService.importFromBinary(file, importMode);
+            return ResponseEntity.ok(summary);
+        } catch (IOException e) {
+            throw new RuntimeException("Błąd podczas czytania pliku: " + e.getMessage(), e);
+        }
+    }
+
     // GET /api/temperatures/stats - Statystyki
     @GetMapping("/stats")
-    public ResponseEntity<TemperatureStats> getStatistics() {
+    public ResponseEntity<TemperatureStats> getStatistics(WebRequest request) {
+        if (notModified(request, dataVersion.global())) {
+            return null;
+        }
         TemperatureStats stats = temperatureService.getStatistics();
         return ResponseEntity.ok(stats);
     }
 
+    // GET /api/temperatures/stats/consistency - Porównanie statystyk z pamięci z bazą danych
+    @GetMapping("/stats/consistency")
+    public ResponseEntity<TemperatureStatsConsistency> checkStatisticsConsistency() {
+        TemperatureStatsConsistency consistency = temperatureService.checkStatisticsConsistency();
+        return ResponseEntity.ok(consistency);
+    }
+
+    // GET /api/temperatures/stats/cache - Liczniki cache odczytów per data
+    @GetMapping("/stats/cache")
+    public ResponseEntity<TemperatureCacheStats> getCacheStats() {
+        TemperatureCacheStats stats = temperatureService.getCacheStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    // GET /api/temperatures/stats/columnar - Rozmiar repliki kolumnowej (odczyty, daty, bajty na odczyt)
+    @GetMapping("/stats/columnar")
+    public ResponseEntity<TemperatureColumnStoreStats> getColumnStoreStats() {
+        return ResponseEntity.ok(temperatureService.getColumnStoreStats());
+    }
+
+    // GET /api/temperatures/stats/db-gate - Bramka dostępu do bazy (zajęte zezwolenia, czas oczekiwania)
+    @GetMapping("/stats/db-gate")
+    public ResponseEntity<TemperatureDbGateStats> getDbGateStats() {
+        return ResponseEntity.ok(databaseGate.stats());
+    }
+
     // GET /api/temperatures/stats/hourly - Średnie według godzin
     @GetMapping("/stats/hourly")
-    public ResponseEntity<Map<LocalTime, Double>> getHourlyAverages() {
+    public ResponseEntity<Map<LocalTime, Double>> getHourlyAverages(WebRequest request) {
+        if (notModified(request, dataVersion.global())) {
+            return null;
+        }
         Map<LocalTime, Double> averages = temperatureService.getAverageTemperatureByHour();
         return ResponseEntity.ok(averages);
     }
 
+    // GET /api/temperatures/aggregate - Agregacja po wybranych wymiarach (hour, dayOfWeek, source, day, week, month)
+    @GetMapping("/aggregate")
+    public ResponseEntity<List<TemperatureAggregateRow>> aggregate(
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(required = false) List<String> metrics,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String source) {
+        Set<TemperatureAggregationDimension> dimensions = new LinkedHashSet<>();
+        if (groupBy != null) {
+            groupBy.forEach(value -> dimensions.add(TemperatureAggregationDimension.from(value)));
+        }
+        Set<TemperatureAggregationMetric> selectedMetrics = EnumSet.allOf(TemperatureAggregationMetric.class);
+        if (metrics != null && !metrics.isEmpty()) {
+            selectedMetrics = EnumSet.noneOf(TemperatureAggregationMetric.class);
+            for (String value : metrics) {
+                selectedMetrics.add(TemperatureAggregationMetric.from(value));
+            }
+        }
+
+        List<TemperatureAggregateRow> rows =
+                aggregationService.aggregate(dimensions, selectedMetrics, startDate, endDate, source);
+        return ResponseEntity.ok(rows);
+    }
+
     // GET /api/temperatures/latest - Najnowsze odczyty
     @GetMapping("/latest")
-    public ResponseEntity<List<TemperatureReading>> getLatestReadings() {
-        List<TemperatureReading> latest = temperatureService.getLatestReadings();
+    public ResponseEntity<List<TemperatureReadingView>> getLatestReadings(
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (notModified(request, dataVersion.global())) {
+            return null;
+        }
+        List<TemperatureReadingView> latest = temperatureService.getLatestReadings(limit);
         return ResponseEntity.ok(latest);
     }
 
+    // GET /api/temperatures/stream - Nowe odczyty na żywo (Server-Sent Events)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReadings(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return liveFeed.subscribe(lastEventId);
+    }
+
+    // GET /api/temperatures/forecast - Prognoza na podstawie średnich historycznych (dzień tygodnia x godzina)
+    @GetMapping("/forecast")
+    public ResponseEntity<List<TemperatureForecast>> getForecast(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "1") int days) {
+        List<TemperatureForecast> forecast = forecastEngine.forecast(date, days);
+        return ResponseEntity.ok(forecast);
+    }
+
     // GET /api/temperatures/average/{date} - Średnia temperatura dla daty
     @GetMapping("/average/{date}")
     public ResponseEntity<Double> getAverageTemperatureByDate(
@@ -119,4 +352,9 @@ public class TemperatureController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    // Ustawia ETag; przy zgodnym If-None-Match odpowiedź to 304 bez treści
+    private static boolean notModified(WebRequest request, TemperatureDataVersion.Tag tag) {
+        return request.checkNotModified(tag.getEtag());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.temperaturemanagement.temperature;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Parser pojedynczej linii CSV w formacie {@code date;dayOfWeek;hour;temperature}.
+ * Dzieli linię po średniku przez {@code indexOf}, bez wyrażeń regularnych.
+ */
+public final class TemperatureCsvParser {
+
+    public static final char SEPARATOR = ';';
+    public static final String HEADER = "date;dayOfWeek;hour;temperature";
+
+    private static final int REQUIRED_COLUMNS = 4;
+
+    private TemperatureCsvParser() {
+    }
+
+    public static boolean hasRequiredColumns(String line) {
+        int separators = 0;
+        for (int i = 0; i < line.length() && separators < REQUIRED_COLUMNS - 1; i++) {
+            if (line.charAt(i) == SEPARATOR) separators++;
+        }
+        return separators >= REQUIRED_COLUMNS - 1;
+    }
+
+    /**
+     * Zwraca odczyt ze źródłem {@code source} albo rzuca {@link IllegalArgumentException}
+     * (także {@link java.time.format.DateTimeParseException}) dla nieprawidłowej linii.
+     */
+    public static TemperatureReading parseLine(String line, String source) {
+        String[] columns = new String[REQUIRED_COLUMNS];
+        int start = 0;
+        for (int column = 0; column < REQUIRED_COLUMNS; column++) {
+            int end = line.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                if (column < REQUIRED_COLUMNS - 1) {
+                    throw new IllegalArgumentException("Oczekiwano " + REQUIRED_COLUMNS + " kolumn, znaleziono " + (column + 1));
+                }
+                end = line.length();
+            }
+            columns[column] = line.substring(start, end).trim();
+            start = end + 1;
+        }
+
+        LocalDate date = LocalDate.parse(columns[0]);
+        int dayOfWeek = Integer.parseInt(columns[1]);
+        LocalTime hour = LocalTime.parse(columns[2]);
+        double temperature = Double.parseDouble(columns[3]);
+
+        validate(dayOfWeek, temperature);
+
+        return TemperatureReading.builder()
+                .date(date)
+                .dayOfWeek(dayOfWeek)
+                .hour(hour)
+                .temperature(temperature)
+                .source(source)
+                .build();
+    }
+
+    /**
+     * Sprawdzenie pól, których nie gwarantuje sam format - wspólne z importem binarnym, żeby oba importy
+     * odrzucały te same odczyty z tym samym komunikatem.
+     */
+    public static void validate(int dayOfWeek, double temperature) {
+        if (dayOfWeek < 1 || dayOfWeek > 7) {
+            throw new IllegalArgumentException("Dzień tygodnia musi być od 1 do 7");
+        }
+        if (!(temperature >= -100.0 && temperature <= 100.0)) {
+            throw new IllegalArgumentException("Temperatura musi być w zakresie od -100°C do 100°C");
+        }
+    }
+
+    /**
+     * Formatuje odczyt do linii CSV akceptowanej przez {@link #parseLine(String, String)}.
+     */
+    public static String formatLine(TemperatureReading reading) {
+        return reading.getDate().toString() + SEPARATOR
+                + reading.getDayOfWeek() + SEPARATOR
+                + reading.getHour() + SEPARATOR
+                + reading.getTemperature();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+/**
+ * Pozycja w stronicowaniu typu keyset po kluczu (date, hour, id).
+ * Na zewnątrz przekazywana jako nieprzezroczysty token Base64.
+ */
+@Value
+public class TemperatureCursor {
+
+    private static final char SEPARATOR = '|';
+
+    LocalDate date;
+    LocalTime hour;
+    Long id;
+
+    public static TemperatureCursor after(TemperatureReadingView reading) {
+        return new TemperatureCursor(reading.getDate(), reading.getHour(), reading.getId());
+    }
+
+    public String encode() {
+        String raw = date.toString() + SEPARATOR + hour + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TemperatureCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = raw.indexOf(SEPARATOR, first + 1);
+            if (first < 0 || second < 0) {
+                throw new IllegalArgumentException("niepoprawna struktura");
+            }
+            return new TemperatureCursor(
+                    LocalDate.parse(raw.substring(0, first)),
+                    LocalTime.parse(raw.substring(first + 1, second)),
+                    Long.parseLong(raw.substring(second + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidTemperatureDataException("Nieprawidłowy token stronicowania: " + token, e);
+        }
+    }
+}
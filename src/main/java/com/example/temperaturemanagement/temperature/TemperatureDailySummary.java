@@ -0,0 +1,43 @@
+package com.example.temperaturemanagement.temperature;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Dzienne podsumowanie odczytów utrzymywane w tej samej transakcji co zapisy do temperature_readings.
+ * Suma kwadratów pozwala policzyć wariancję bez ponownego czytania surowych odczytów.
+ */
+@Entity
+@Table(name = "temperature_daily_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureDailySummary {
+
+    @Id
+    private LocalDate date;
+
+    @Column(name = "reading_count", nullable = false)
+    private long readingCount;
+
+    @Column(name = "temperature_sum", nullable = false)
+    private double temperatureSum;
+
+    @Column(name = "temperature_sum_of_squares", nullable = false)
+    private double temperatureSumOfSquares;
+
+    @Column(name = "min_temperature", nullable = false)
+    private double minTemperature;
+
+    @Column(name = "max_temperature", nullable = false)
+    private double maxTemperature;
+}
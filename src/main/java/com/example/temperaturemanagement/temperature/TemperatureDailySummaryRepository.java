@@ -0,0 +1,65 @@
+package com.example.temperaturemanagement.temperature;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TemperatureDailySummaryRepository extends JpaRepository<TemperatureDailySummary, LocalDate> {
+
+    List<TemperatureDailySummary> findByDateBetweenOrderByDate(LocalDate startDate, LocalDate endDate);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TemperatureDailySummary s WHERE s.date = :date")
+    Optional<TemperatureDailySummary> lockByDate(@Param("date") LocalDate date);
+
+    // Dodanie paczki odczytów do podsumowania dnia jedną instrukcją (wstawienie albo zwiększenie sum)
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO TemperatureDailySummary " +
+            "(date, readingCount, temperatureSum, temperatureSumOfSquares, minTemperature, maxTemperature) " +
+            "VALUES (:date, :count, :sum, :sumOfSquares, :min, :max) " +
+            "ON CONFLICT(date) DO UPDATE SET " +
+            "readingCount = readingCount + excluded.readingCount, " +
+            "temperatureSum = temperatureSum + excluded.temperatureSum, " +
+            "temperatureSumOfSquares = temperatureSumOfSquares + excluded.temperatureSumOfSquares, " +
+            "minTemperature = LEAST(minTemperature, excluded.minTemperature), " +
+            "maxTemperature = GREATEST(maxTemperature, excluded.maxTemperature)")
+    int addToSummary(@Param("date") LocalDate date,
+                     @Param("count") long count,
+                     @Param("sum") double sum,
+                     @Param("sumOfSquares") double sumOfSquares,
+                     @Param("min") double min,
+                     @Param("max") double max);
+
+    // Pusty wiersz dnia, jeśli jeszcze go nie ma - po nim blokada w lockByDate zawsze ma co zablokować.
+    // Pusta aktualizacja zamiast DO NOTHING, które Hibernate dla H2 tłumaczy na zwykły INSERT.
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO TemperatureDailySummary " +
+            "(date, readingCount, temperatureSum, temperatureSumOfSquares, minTemperature, maxTemperature) " +
+            "VALUES (:date, 0, 0.0, 0.0, 0.0, 0.0) " +
+            "ON CONFLICT(date) DO UPDATE SET readingCount = readingCount")
+    int insertIfAbsent(@Param("date") LocalDate date);
+
+    // Przeliczenie dnia z surowych odczytów (count, sum, sum of squares, min, max)
+    @Query("SELECT COUNT(t), SUM(t.temperature), SUM(t.temperature * t.temperature), " +
+            "MIN(t.temperature), MAX(t.temperature) FROM TemperatureReading t WHERE t.date = :date")
+    List<Object[]> aggregateReadingsByDate(@Param("date") LocalDate date);
+
+    // Pełna odbudowa podsumowań z surowych odczytów
+    @Transactional
+    @Modifying
+    @Query("INSERT INTO TemperatureDailySummary " +
+            "(date, readingCount, temperatureSum, temperatureSumOfSquares, minTemperature, maxTemperature) " +
+            "SELECT t.date, COUNT(t), SUM(t.temperature), SUM(t.temperature * t.temperature), " +
+            "MIN(t.temperature), MAX(t.temperature) FROM TemperatureReading t GROUP BY t.date")
+    int rebuildFromReadings();
+}
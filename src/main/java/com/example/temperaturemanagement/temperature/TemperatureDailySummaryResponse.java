@@ -0,0 +1,38 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureDailySummaryResponse {
+
+    private LocalDate date;
+    private long readingCount;
+    private double averageTemperature;
+    private double minTemperature;
+    private double maxTemperature;
+    private double standardDeviation;
+
+    public static TemperatureDailySummaryResponse from(TemperatureDailySummary summary) {
+        double count = summary.getReadingCount();
+        double mean = summary.getTemperatureSum() / count;
+        // Wariancja populacji z sumy kwadratów; max(0, ...) chroni przed ujemnym wynikiem z zaokrągleń
+        double variance = Math.max(0.0, summary.getTemperatureSumOfSquares() / count - mean * mean);
+
+        return TemperatureDailySummaryResponse.builder()
+                .date(summary.getDate())
+                .readingCount(summary.getReadingCount())
+                .averageTemperature(Math.round(mean * 100.0) / 100.0)
+                .minTemperature(summary.getMinTemperature())
+                .maxTemperature(summary.getMaxTemperature())
+                .standardDeviation(Math.round(Math.sqrt(variance) * 100.0) / 100.0)
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Utrzymuje tabelę temperature_daily_summaries. Słuchacz zdarzeń działa synchronicznie,
+ * więc podsumowania zmieniają się w tej samej transakcji co surowe odczyty.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TemperatureDailySummaryService implements SmartInitializingSingleton {
+
+    private final TemperatureDailySummaryRepository summaryRepository;
+    private final TemperatureReadingRepository temperatureRepository;
+    private final TemperatureRollupRepository rollupRepository;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (summaryRepository.count() == 0 && temperatureRepository.count() > 0) {
+            int days = summaryRepository.rebuildFromReadings();
+            log.info("Odbudowano podsumowania dzienne dla {} dni", days);
+        }
+    }
+
+    @EventListener
+    public void onReadingsChanged(TemperatureReadingsChangedEvent event) {
+        if (event.isCompaction()) {
+            // Odczyty przeniesione do agregatów nadal należą do swojego dnia
+            return;
+        }
+        // Dni, z których coś usunięto, przeliczamy z surowych odczytów (min/max mogły się zmienić)
+        Set<LocalDate> datesToRecompute = new TreeSet<>();
+        for (TemperatureReading reading : event.getRemoved()) {
+            datesToRecompute.add(reading.getDate());
+        }
+
+        // Pozostałe dni aktualizujemy przyrostowo, jedną instrukcją na dzień
+        Map<LocalDate, DailyDelta> additions = new TreeMap<>();
+        for (TemperatureReading reading : event.getAdded()) {
+            if (!datesToRecompute.contains(reading.getDate())) {
+                additions.computeIfAbsent(reading.getDate(), d -> new DailyDelta()).add(reading.getTemperature());
+            }
+        }
+
+        additions.forEach((date, delta) -> summaryRepository.addToSummary(
+                date, delta.count, delta.sum, delta.sumOfSquares, delta.min, delta.max));
+        datesToRecompute.forEach(this::recomputeDate);
+    }
+
+    private void recomputeDate(LocalDate date) {
+        // Blokada wiersza podsumowania przed odczytem surowych danych - równoległe dopisanie do tego dnia
+        // czeka na naszą transakcję albo jest już widoczne w przeliczeniu. Brakujący wiersz jest najpierw
+        // wstawiany bez konfliktu, więc równoległy addToSummary nie wyprzedzi zwykłego INSERT-a.
+        summaryRepository.insertIfAbsent(date);
+        TemperatureDailySummary summary = summaryRepository.lockByDate(date).orElseThrow();
+        Object[] row = summaryRepository.aggregateReadingsByDate(date).get(0);
+        // Część dnia mogła już trafić do agregatów retencji - ona też należy do podsumowania
+        Object[] rolledUp = rollupRepository.aggregateByDate(date).get(0);
+        long count = ((Number) row[0]).longValue() + ((Number) rolledUp[0]).longValue();
+
+        if (count == 0) {
+            summaryRepository.delete(summary);
+            return;
+        }
+
+        summary.setReadingCount(count);
+        summary.setTemperatureSum(sum(row[1], rolledUp[1]));
+        summary.setTemperatureSumOfSquares(sum(row[2], rolledUp[2]));
+        summary.setMinTemperature(extreme(row[3], rolledUp[3], Math::min));
+        summary.setMaxTemperature(extreme(row[4], rolledUp[4], Math::max));
+        summaryRepository.save(summary);
+    }
+
+    // Puste grupy zwracają NULL w sumach i skrajnych wartościach
+    private static double sum(Object a, Object b) {
+        return (a == null ? 0.0 : ((Number) a).doubleValue()) + (b == null ? 0.0 : ((Number) b).doubleValue());
+    }
+
+    private static double extreme(Object a, Object b, DoubleBinaryOperator pick) {
+        if (a == null) return ((Number) b).doubleValue();
+        if (b == null) return ((Number) a).doubleValue();
+        return pick.applyAsDouble(((Number) a).doubleValue(), ((Number) b).doubleValue());
+    }
+
+    @Transactional(readOnly = true)
+    public List<TemperatureDailySummaryResponse> getDailySummaries(LocalDate startDate, LocalDate endDate) {
+        log.info("Pobieranie podsumowań dziennych dla zakresu dat: {} - {}", startDate, endDate);
+
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidTemperatureDataException("Data początkowa nie może być późniejsza niż data końcowa");
+        }
+
+        return summaryRepository.findByDateBetweenOrderByDate(startDate, endDate).stream()
+                .map(TemperatureDailySummaryResponse::from)
+                .toList();
+    }
+
+    private static final class DailyDelta {
+        private long count;
+        private double sum;
+        private double sumOfSquares;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private void add(double temperature) {
+            count++;
+            sum += temperature;
+            sumOfSquares += temperature * temperature;
+            min = Math.min(min, temperature);
+            max = Math.max(max, temperature);
+        }
+    }
+}
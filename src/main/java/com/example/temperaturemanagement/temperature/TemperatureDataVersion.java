@@ -0,0 +1,68 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotoniczna wersja danych - globalna i per data - podbijana po zatwierdzeniu każdego zapisu.
+ * Kontroler wylicza z niej ETag, więc zapytanie warunkowe z aktualnym If-None-Match dostaje 304
+ * bez zapytania do bazy i bez serializacji JSON. Last-Modified nie jest wysyłany - data HTTP ma
+ * rozdzielczość sekundy, więc drugi zapis w tej samej sekundzie dałby 304 ze starymi danymi.
+ *
+ * <p>Słuchacz działa jako ostatni po zatwierdzeniu ({@link Ordered#LOWEST_PRECEDENCE}), po aktualizacji
+ * statystyk i cache ({@link TemperatureReadingsChangedEvent#DERIVED_STATE_ORDER}). Nowa wersja nigdy nie
+ * jest więc wydana dla starych danych. Epoka startu w ETag odróżnia wersje sprzed restartu.
+ */
+@Component
+public class TemperatureDataVersion {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+    private final Map<LocalDate, Tag> dateTags = new ConcurrentHashMap<>();
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReadingsChanged(TemperatureReadingsChangedEvent event) {
+        long next = version.incrementAndGet();
+
+        Set<LocalDate> dates = new HashSet<>();
+        event.getRemoved().forEach(reading -> dates.add(reading.getDate()));
+        event.getAdded().forEach(reading -> dates.add(reading.getDate()));
+        Tag tag = tag(next);
+        dates.forEach(date -> dateTags.put(date, tag));
+    }
+
+    // Scalenie agregatów godzinowych w dzienne zmienia /stats/hourly i /range/series, ale nie odczyty żadnej daty
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRollupsMerged(TemperatureRollupsMergedEvent event) {
+        version.incrementAndGet();
+    }
+
+    public Tag global() {
+        return tag(version.get());
+    }
+
+    public Tag forDate(LocalDate date) {
+        return dateTags.getOrDefault(date, tag(0));
+    }
+
+    private Tag tag(long value) {
+        return new Tag("\"" + epoch + "-" + value + "\"");
+    }
+
+    @Value
+    public static class Tag {
+        String etag;
+    }
+}
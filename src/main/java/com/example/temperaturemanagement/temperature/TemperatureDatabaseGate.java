@@ -0,0 +1,245 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import com.example.temperaturemanagement.exception.TemperatureServiceOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Ogranicza liczbę jednocześnie otwartych połączeń z bazą do rozmiaru puli połączeń. Przy wątkach
+ * wirtualnych liczba równoległych żądań nie jest już ograniczona pulą wątków Tomcata - nadmiar czeka tu,
+ * w sprawiedliwej kolejce z pomiarem czasu oczekiwania, zamiast w puli Hikari.
+ *
+ * <p>Bramka opakowuje bean {@link DataSource}, więc obejmuje każdą drogę do bazy: repozytoria, zapytania
+ * {@code EntityManager}, {@code JdbcTemplate} i transakcje. Zezwolenie jest pobierane przy otwarciu połączenia
+ * i zwalniane przy jego zamknięciu - w transakcji to jej koniec, tak jak dla samego połączenia. Kolejne
+ * połączenie otwarte w tym samym wątku, zanim pierwsze zostanie zamknięte, korzysta z tego samego
+ * zezwolenia, więc bramka nie blokuje się sama na sobie. Odczyty obsługiwane z pamięci (statystyki,
+ * /latest, cache dat, replika kolumnowa) w ogóle nie przechodzą przez bramkę.
+ */
+@Component
+@Slf4j
+public class TemperatureDatabaseGate implements MeterBinder {
+
+    // Liczba połączeń otwartych przez wątek przez bramkę
+    private static final ThreadLocal<int[]> OPEN_CONNECTIONS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final TemperatureProperties.DbGate properties;
+    private final Semaphore permits;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private volatile Timer waitTimer;
+
+    public TemperatureDatabaseGate(TemperatureProperties properties) {
+        this.properties = properties.getDbGate();
+        this.permits = new Semaphore(this.properties.getPermits(), true);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        waitTimer = Timer.builder("temperature.db.gate.wait")
+                .description("Czas oczekiwania na wejście do bazy")
+                .register(registry);
+        Gauge.builder("temperature.db.gate.in.use", permits, semaphore -> properties.getPermits() - semaphore.availablePermits())
+                .description("Zajęte zezwolenia bramki")
+                .register(registry);
+        Gauge.builder("temperature.db.gate.waiting", permits, Semaphore::getQueueLength)
+                .description("Wątki czekające na wejście do bazy")
+                .register(registry);
+        FunctionCounter.builder("temperature.db.gate.rejected", rejected, AtomicLong::get)
+                .description("Żądania odrzucone po przekroczeniu czasu oczekiwania")
+                .register(registry);
+    }
+
+    public TemperatureDbGateStats stats() {
+        long count = acquired.get();
+        return TemperatureDbGateStats.builder()
+                .enabled(properties.isEnabled())
+                .permits(properties.getPermits())
+                .inUse(properties.getPermits() - permits.availablePermits())
+                .waiting(permits.getQueueLength())
+                .acquired(count)
+                .rejected(rejected.get())
+                .averageWaitMillis(count > 0 ? totalWaitNanos.get() / 1e6 / count : 0.0)
+                .maxWaitMillis(maxWaitNanos.get() / 1e6)
+                .build();
+    }
+
+    private Connection open(DataSource target, ConnectionSupplier supplier) throws SQLException {
+        if (!properties.isEnabled()) {
+            return supplier.get(target);
+        }
+        int[] open = OPEN_CONNECTIONS.get();
+        boolean ownsPermit = open[0] == 0;
+        if (ownsPermit) {
+            acquire();
+        }
+        Connection connection;
+        try {
+            connection = supplier.get(target);
+        } catch (SQLException | RuntimeException e) {
+            if (ownsPermit) {
+                permits.release();
+            }
+            throw e;
+        }
+        open[0]++;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new GatedConnection(connection, open, ownsPermit));
+    }
+
+    private void acquire() {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(properties.getAcquireTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.incrementAndGet();
+                throw new TemperatureServiceOverloadedException(
+                        "Baza danych jest przeciążona - brak wolnego połączenia po " + properties.getAcquireTimeout().toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TemperatureServiceOverloadedException("Przerwano oczekiwanie na połączenie z bazą", e);
+        }
+        long waited = System.nanoTime() - start;
+        acquired.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulate(waited);
+        Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(waited, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get(DataSource target) throws SQLException;
+    }
+
+    /**
+     * Opakowuje bean {@link DataSource}. Bramka jest pobierana dopiero przy pierwszym połączeniu, żeby jej
+     * zależności (konfiguracja) nie były tworzone razem z post-procesorami.
+     */
+    @Component
+    static class DataSourceWrapper implements BeanPostProcessor {
+
+        private final ObjectProvider<TemperatureDatabaseGate> gate;
+
+        DataSourceWrapper(ObjectProvider<TemperatureDatabaseGate> gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof GatedDataSource)) {
+                return new GatedDataSource(dataSource, gate);
+            }
+            return bean;
+        }
+    }
+
+    private static final class GatedDataSource extends DelegatingDataSource {
+
+        private final ObjectProvider<TemperatureDatabaseGate> gate;
+
+        private GatedDataSource(DataSource target, ObjectProvider<TemperatureDatabaseGate> gate) {
+            super(target);
+            this.gate = gate;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return gate.getObject().open(obtainTargetDataSource(), DataSource::getConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return gate.getObject().open(obtainTargetDataSource(), target -> target.getConnection(username, password));
+        }
+    }
+
+    // Połączenie z puli, które przy pierwszym close() zwalnia zezwolenie (jeśli to ono je pobrało)
+    private final class GatedConnection implements InvocationHandler {
+
+        private final Connection target;
+        private final int[] openedByThread;
+        private final boolean ownsPermit;
+        private boolean closed;
+
+        private GatedConnection(Connection target, int[] openedByThread, boolean ownsPermit) {
+            this.target = target;
+            this.openedByThread = openedByThread;
+            this.ownsPermit = ownsPermit;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    try {
+                        target.close();
+                    } finally {
+                        release();
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || target.isClosed();
+                }
+                case "unwrap" -> {
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                }
+                case "isWrapperFor" -> {
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+            }
+        }
+
+        private synchronized void release() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // Licznik wątku, który otworzył połączenie - zamknięcie może nastąpić w innym wątku
+            openedByThread[0]--;
+            if (ownsPermit) {
+                permits.release();
+            }
+        }
+    }
+}
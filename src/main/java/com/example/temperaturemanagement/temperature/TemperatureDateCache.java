@@ -0,0 +1,111 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ograniczony cache odczytów z jednej daty (posortowanych po godzinie i id). Z jednej listy obsługiwane są
+ * strony /date/{date} i ostatni odczyt dnia. Wpis powstaje tylko z pierwszej strony, która zmieściła całą datę -
+ * większe daty są stronicowane w bazie i nigdy nie są ładowane w całości.
+ *
+ * <p>Waga wpisu to 1 + liczba odczytów, więc {@code temperature.cache.max-weight} ogranicza jednocześnie
+ * liczbę dat i łączną liczbę odczytów; eksmisją zarządza W-TinyLFU z Caffeine. Daty zmienione przez zapis
+ * są unieważniane po zatwierdzeniu transakcji - także obie daty, gdy aktualizacja przenosi odczyt.
+ * Każde unieważnienie zwiększa licznik wersji, a wpis jest zapisywany tylko wtedy, gdy licznik nie zmienił się
+ * od rozpoczęcia odczytu - lista przeczytana przed zatwierdzeniem zapisu nie zostaje w cache.
+ */
+@Component
+public class TemperatureDateCache implements MeterBinder {
+
+    private static final Comparator<TemperatureReadingView> HOUR_THEN_ID =
+            Comparator.comparing(TemperatureReadingView::getHour).thenComparing(TemperatureReadingView::getId);
+
+    private final boolean enabled;
+    private final long maxWeight;
+    private final Cache<LocalDate, List<TemperatureReadingView>> cache;
+    private final AtomicLong version = new AtomicLong();
+
+    public TemperatureDateCache(TemperatureProperties properties) {
+        this.enabled = properties.getCache().isEnabled();
+        this.maxWeight = properties.getCache().getMaxWeight();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((LocalDate date, List<TemperatureReadingView> readings) -> 1 + readings.size())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Wersja do przekazania do {@link #putIfUnchanged}, pobierana przed odczytem z bazy.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    // null = brak daty w cache (albo cache wyłączony)
+    public List<TemperatureReadingView> getIfPresent(LocalDate date) {
+        return enabled ? cache.getIfPresent(date) : null;
+    }
+
+    public void putIfUnchanged(LocalDate date, List<TemperatureReadingView> readings, long readVersion) {
+        if (!enabled) {
+            return;
+        }
+        // Sprawdzenie w compute - unieważnienie tego klucza czeka na zapis albo wersja jest już inna
+        cache.asMap().compute(date, (d, current) -> version.get() == readVersion ? sorted(readings) : current);
+    }
+
+    @Order(TemperatureReadingsChangedEvent.DERIVED_STATE_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReadingsChanged(TemperatureReadingsChangedEvent event) {
+        Set<LocalDate> dates = new HashSet<>();
+        event.getRemoved().forEach(reading -> dates.add(reading.getDate()));
+        event.getAdded().forEach(reading -> dates.add(reading.getDate()));
+        version.incrementAndGet();
+        cache.invalidateAll(dates);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "temperature.dates");
+    }
+
+    public TemperatureCacheStats stats() {
+        CacheStats stats = cache.stats();
+        long weightedSize = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        long cachedDates = cache.estimatedSize();
+
+        return TemperatureCacheStats.builder()
+                .enabled(enabled)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .evictionWeight(stats.evictionWeight())
+                .cachedDates(cachedDates)
+                .cachedReadings(Math.max(0, weightedSize - cachedDates))
+                .maxWeight(maxWeight)
+                .build();
+    }
+
+    private static List<TemperatureReadingView> sorted(List<TemperatureReadingView> readings) {
+        return readings.stream().sorted(HOUR_THEN_ID).toList();
+    }
+}
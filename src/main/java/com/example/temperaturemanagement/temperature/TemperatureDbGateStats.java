@@ -0,0 +1,22 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureDbGateStats {
+
+    private boolean enabled;
+    private int permits;
+    private int inUse;
+    private int waiting;
+    private long acquired;
+    private long rejected;
+    private double averageWaitMillis;
+    private double maxWaitMillis;
+}
@@ -0,0 +1,189 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trwały zapis odczytów w {@link TemperatureSegmentLog} (temperature.storage.enabled). H2 w pamięci zostaje
+ * silnikiem zapytań, a dziennik przechowuje dane między restartami: zmiany transakcji trafiają do niego razem,
+ * jako jedna transakcja dziennika, tuż przed jej zatwierdzeniem, a przy starcie dziennik jest wgrywany do pustej
+ * bazy batchowanymi INSERT-ami JDBC, zanim statystyki, cache i podsumowania dzienne zbudują się z bazy.
+ *
+ * <p>Zapis przed commitem oznacza, że błąd dziennika wycofuje transakcję. Odwrotna sytuacja - commit w bazie
+ * nieudany po zapisie do dziennika - przy H2 w pamięci praktycznie nie występuje, bo ograniczenia są sprawdzane
+ * przy flush, przed zapisem do dziennika.
+ */
+@Component
+@Slf4j
+public class TemperatureDurableStorage implements InitializingBean, DisposableBean, MeterBinder {
+
+    private static final String INSERT_READING = "INSERT INTO temperature_readings "
+            + "(id, date, day_of_week, reading_hour, temperature, source, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final TemperatureProperties.Storage properties;
+    private final int chunkSize;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final TemperatureSegmentLog segmentLog;
+    private ScheduledExecutorService snapshots;
+
+    // Współdzielony EntityManager wymaga fabryki JPA, więc schemat istnieje już przy odtwarzaniu danych
+    public TemperatureDurableStorage(TemperatureProperties properties, JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.properties = properties.getStorage();
+        this.chunkSize = properties.getCsvImport().getChunkSize();
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.segmentLog = new TemperatureSegmentLog(Path.of(this.properties.getDirectory()),
+                this.properties.getSegmentSize().toBytes());
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        segmentLog.open();
+        restoreReadings();
+
+        snapshots = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "temperature-storage-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getSnapshotInterval().toMillis();
+        snapshots.scheduleWithFixedDelay(this::snapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Zdarzenia jednej transakcji (np. paczki operacji na zakresie dat) trafiają do dziennika razem, tuż przed commitem
+    @EventListener
+    public void onReadingsChanged(TemperatureReadingsChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            append(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<TemperatureReadingsChangedEvent> changes =
+                (List<TemperatureReadingsChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<TemperatureReadingsChangedEvent> transactionChanges = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Naruszenie ograniczeń ma wycofać transakcję, zanim odczyt trafi do dziennika
+                    entityManager.flush();
+                    append(transactionChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TemperatureDurableStorage.this);
+                }
+            });
+            changes = transactionChanges;
+        }
+        changes.add(event);
+    }
+
+    private void append(List<TemperatureReadingsChangedEvent> changes) {
+        try {
+            segmentLog.append(changes, properties.isForceOnCommit());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Zapis do dziennika odczytów nie powiódł się", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Gauge.builder("temperature.storage.readings", segmentLog, TemperatureSegmentLog::liveCount)
+                .description("Odczyty w dzienniku trwałym")
+                .register(registry);
+        Gauge.builder("temperature.storage.segments", segmentLog, TemperatureSegmentLog::segmentCount)
+                .description("Segmenty dziennika na dysku")
+                .register(registry);
+        FunctionCounter.builder("temperature.storage.records", segmentLog, TemperatureSegmentLog::appended)
+                .description("Rekordy dopisane do dziennika od startu")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (snapshots == null) {
+            return;
+        }
+        snapshots.shutdown();
+        snapshots.awaitTermination(1, TimeUnit.MINUTES);
+        // Snapshot przy zamknięciu - kolejny start czyta jeden plik zamiast całego dziennika
+        snapshot();
+        segmentLog.close();
+    }
+
+    private void restoreReadings() {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_readings", Long.class);
+        if (existing != null && existing > 0) {
+            log.warn("Tabela temperature_readings zawiera już {} odczytów - pomijam odtwarzanie z dziennika", existing);
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>(chunkSize);
+        long[] restored = new long[2];
+        segmentLog.forEachLive(reading -> {
+            batch.add(new Object[]{reading.getId(), reading.getDate(), reading.getDayOfWeek(), reading.getHour(),
+                    reading.getTemperature(), reading.getSource(), reading.getCreatedAt(), reading.getUpdatedAt()});
+            restored[0]++;
+            restored[1] = Math.max(restored[1], reading.getId());
+            if (batch.size() == chunkSize) {
+                jdbcTemplate.batchUpdate(INSERT_READING, batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_READING, batch);
+        }
+
+        if (restored[0] > 0) {
+            // Optymalizator pooled traktuje wartość z sekwencji jako górną granicę puli - stąd zapas allocationSize
+            jdbcTemplate.execute("ALTER SEQUENCE temperature_readings_seq RESTART WITH "
+                    + (restored[1] + TemperatureReading.ID_ALLOCATION_SIZE));
+        }
+        log.info("Odtworzono {} odczytów z dziennika w {} ms", restored[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void snapshot() {
+        try {
+            segmentLog.snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Snapshot dziennika odczytów nie powiódł się: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum TemperatureExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv"),
+    BINARY(TemperatureBinaryFormat.CONTENT_TYPE, "tbin");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    public static TemperatureExportFormat from(String value) {
+        for (TemperatureExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidTemperatureDataException("Nieobsługiwany format eksportu: " + value);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Eksport odczytów zapisywany do strumienia odpowiedzi w trakcie czytania kursora z bazy.
+ * W pamięci trzymana jest co najwyżej jedna porcja encji - kontekst persystencji jest czyszczony
+ * co {@value #FLUSH_INTERVAL} wierszy, razem z opróżnieniem bufora wyjściowego.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class TemperatureExportService {
+
+    private static final int FLUSH_INTERVAL = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TemperatureReadingRepository temperatureRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public long exportRange(LocalDate startDate, LocalDate endDate, TemperatureExportFormat format,
+                            OutputStream outputStream) throws IOException {
+        log.info("Eksport odczytów {} dla zakresu dat: {} - {}", format, startDate, endDate);
+
+        long exported;
+        try (Stream<TemperatureReading> readings = temperatureRepository.streamByDateBetween(startDate, endDate)) {
+            exported = switch (format) {
+                case NDJSON -> writeNdjson(readings.iterator(), outputStream);
+                case CSV -> writeCsv(readings.iterator(), outputStream);
+                case BINARY -> writeBinary(readings.iterator(), outputStream);
+            };
+        }
+
+        log.info("Wyeksportowano {} odczytów", exported);
+        return exported;
+    }
+
+    private long writeNdjson(Iterator<TemperatureReading> readings, OutputStream outputStream) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writerFor(TemperatureReading.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(buffered)) {
+            while (readings.hasNext()) {
+                writer.write(readings.next());
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        if (count > 0) {
+            buffered.write('\n');
+        }
+        buffered.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<TemperatureReading> readings, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(TemperatureCsvParser.HEADER);
+        writer.write('\n');
+
+        long count = 0;
+        while (readings.hasNext()) {
+            writer.write(TemperatureCsvParser.formatLine(readings.next()));
+            writer.write('\n');
+            if (++count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeBinary(Iterator<TemperatureReading> readings, OutputStream outputStream) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        TemperatureBinaryFormat.Writer writer = new TemperatureBinaryFormat.Writer(buffered);
+
+        long count = 0;
+        while (readings.hasNext()) {
+            writer.write(readings.next());
+            if (++count % FLUSH_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        writer.finish();
+        return count;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureForecast {
+
+    private LocalDate date;
+    private Integer dayOfWeek;
+    // Godziny bez historycznych odczytów dla tego dnia tygodnia są pomijane
+    private Map<LocalTime, Double> hourlyTemperatures;
+    private Double averageTemperature;
+}
@@ -0,0 +1,134 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prognoza temperatury jako średnia historyczna dla (dzień tygodnia, pełna godzina).
+ * Macierz 7x24 sum i wag jest zasilana jednym zapytaniem grupującym przy starcie, a następnie
+ * aktualizowana po zatwierdzeniu każdej zmiany - prognoza nie wykonuje żadnych zapytań do bazy.
+ *
+ * <p>Przy {@code temperature.forecast.decay > 0} nowy odczyt najpierw wygasza dotychczasową sumę
+ * i wagę komórki, więc prognoza szybciej podąża za ostatnimi pomiarami. Usunięcie odczytu w tym
+ * trybie odejmuje jego pełną wagę, co jest przybliżeniem.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TemperatureForecastEngine implements SmartInitializingSingleton {
+
+    private static final int DAYS = 7;
+    private static final int HOURS = 24;
+
+    private final TemperatureReadingRepository temperatureRepository;
+    private final TemperatureProperties properties;
+
+    private final double[] sums = new double[DAYS * HOURS];
+    private final double[] weights = new double[DAYS * HOURS];
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        Arrays.fill(sums, 0.0);
+        Arrays.fill(weights, 0.0);
+
+        for (Object[] row : temperatureRepository.sumTemperatureByDayOfWeekAndHour()) {
+            if (row[0] == null) continue;
+            int cell = cell(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            sums[cell] = ((Number) row[2]).doubleValue();
+            weights[cell] = ((Number) row[3]).doubleValue();
+        }
+        log.info("Macierz prognozy zbudowana");
+    }
+
+    @Order(TemperatureReadingsChangedEvent.DERIVED_STATE_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReadingsChanged(TemperatureReadingsChangedEvent event) {
+        double retain = 1.0 - properties.getForecast().getDecay();
+
+        for (TemperatureReading reading : event.getRemoved()) {
+            if (reading.getDayOfWeek() == null) continue;
+            int cell = cell(reading.getDayOfWeek(), reading.getHour().getHour());
+            sums[cell] -= reading.getTemperature();
+            weights[cell] = Math.max(0.0, weights[cell] - 1.0);
+            if (weights[cell] == 0.0) sums[cell] = 0.0;
+        }
+        for (TemperatureReading reading : event.getAdded()) {
+            if (reading.getDayOfWeek() == null) continue;
+            int cell = cell(reading.getDayOfWeek(), reading.getHour().getHour());
+            sums[cell] = sums[cell] * retain + reading.getTemperature();
+            weights[cell] = weights[cell] * retain + 1.0;
+        }
+    }
+
+    public List<TemperatureForecast> forecast(LocalDate startDate, int days) {
+        int maxHorizon = properties.getForecast().getMaxHorizonDays();
+        if (days < 1 || days > maxHorizon) {
+            throw new InvalidTemperatureDataException("Liczba dni prognozy musi być od 1 do " + maxHorizon);
+        }
+
+        List<TemperatureForecast> forecasts = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            forecasts.add(forecastDay(startDate.plusDays(i)));
+        }
+        return forecasts;
+    }
+
+    private TemperatureForecast forecastDay(LocalDate date) {
+        int dayOfWeek = date.getDayOfWeek().getValue();
+        double[] hourly = new double[HOURS];
+        boolean[] present = new boolean[HOURS];
+
+        synchronized (this) {
+            for (int hour = 0; hour < HOURS; hour++) {
+                int cell = cell(dayOfWeek, hour);
+                if (weights[cell] > 0.0) {
+                    hourly[hour] = sums[cell] / weights[cell];
+                    present[hour] = true;
+                }
+            }
+        }
+
+        Map<LocalTime, Double> hourlyTemperatures = new LinkedHashMap<>();
+        double total = 0.0;
+        for (int hour = 0; hour < HOURS; hour++) {
+            if (present[hour]) {
+                hourlyTemperatures.put(LocalTime.of(hour, 0), round(hourly[hour]));
+                total += hourly[hour];
+            }
+        }
+
+        return TemperatureForecast.builder()
+                .date(date)
+                .dayOfWeek(dayOfWeek)
+                .hourlyTemperatures(Collections.unmodifiableMap(hourlyTemperatures))
+                .averageTemperature(hourlyTemperatures.isEmpty() ? null : round(total / hourlyTemperatures.size()))
+                .build();
+    }
+
+    private static int cell(int dayOfWeek, int hour) {
+        return (dayOfWeek - 1) * HOURS + hour;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
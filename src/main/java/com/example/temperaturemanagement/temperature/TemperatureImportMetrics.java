@@ -0,0 +1,53 @@
+package com.example.temperaturemanagement.temperature;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Liczniki importowanych i odrzuconych wierszy. Tag {@code mode} ma stały, mały zbiór wartości;
+ * wiersze na sekundę to {@code rate(temperature_import_rows_total[1m])} po stronie Prometheusa.
+ */
+@Component
+public class TemperatureImportMetrics {
+
+    static final String BATCH = "batch";
+    static final String CSV = "csv";
+    static final String CSV_STREAM = "csv-stream";
+    static final String BINARY = "binary";
+
+    private static final List<String> MODES = List.of(BATCH, CSV, CSV_STREAM, BINARY);
+
+    // Liczniki rejestrowane raz na wartość tagu - odrzucenia są zliczane wiersz po wierszu
+    private final Map<String, Counter> importedCounters;
+    private final Map<String, Counter> rejectedCounters;
+
+    public TemperatureImportMetrics(MeterRegistry meterRegistry) {
+        this.importedCounters = counters(meterRegistry, "imported");
+        this.rejectedCounters = counters(meterRegistry, "rejected");
+    }
+
+    public void imported(String mode, long rows) {
+        importedCounters.get(mode).increment(rows);
+    }
+
+    public void rejected(String mode, long rows) {
+        rejectedCounters.get(mode).increment(rows);
+    }
+
+    private static Map<String, Counter> counters(MeterRegistry meterRegistry, String result) {
+        Map<String, Counter> counters = new HashMap<>();
+        for (String mode : MODES) {
+            counters.put(mode, Counter.builder("temperature.import.rows")
+                    .description("Wiersze przetworzone przez import")
+                    .tag("mode", mode)
+                    .tag("result", result)
+                    .register(meterRegistry));
+        }
+        return Map.copyOf(counters);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tryb zapisu importu strumieniowego. INSERT kończy się 409, gdy odczyt o tej samej dacie, godzinie
+ * i źródle już istnieje; UPSERT aktualizuje takie odczyty i pomija identyczne.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TemperatureImportMode {
+
+    INSERT("insert"),
+    UPSERT("upsert");
+
+    private final String key;
+
+    public static TemperatureImportMode from(String value) {
+        for (TemperatureImportMode mode : values()) {
+            if (mode.key.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new InvalidTemperatureDataException("Nieobsługiwany tryb importu: " + value);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureImportSummary {
+
+    private String fileName;
+    private long importedRows;
+    // Podział importedRows: nowe wiersze, zmienione istniejące i identyczne z zapisanymi (tylko mode=upsert)
+    private long insertedRows;
+    private long updatedRows;
+    private long unchangedRows;
+    private long rejectedRows;
+    private long durationMillis;
+    // Tylko kilka pierwszych błędów, żeby odpowiedź pozostała mała
+    private List<String> sampleErrors;
+}
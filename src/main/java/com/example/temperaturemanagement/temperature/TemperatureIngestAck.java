@@ -0,0 +1,20 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+
+public enum TemperatureIngestAck {
+
+    // Odpowiedź od razu po przyjęciu do kolejki - odczyt ginie, jeśli proces padnie przed zapisem paczki
+    NONE,
+    // Odpowiedź dopiero po zatwierdzeniu paczki, w której znalazł się odczyt
+    COMMIT;
+
+    public static TemperatureIngestAck from(String value) {
+        for (TemperatureIngestAck ack : values()) {
+            if (ack.name().equalsIgnoreCase(value)) {
+                return ack;
+            }
+        }
+        throw new InvalidTemperatureDataException("Nieobsługiwany tryb potwierdzenia: " + value);
+    }
+}
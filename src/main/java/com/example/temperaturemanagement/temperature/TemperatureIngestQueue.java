@@ -0,0 +1,272 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import com.example.temperaturemanagement.exception.TemperatureServiceOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zapis odczytów z opóźnieniem (write-behind) dla POST /ingest. Żądania tylko wstawiają odczyt do
+ * ograniczonej kolejki, a jeden wątek zapisujący zatwierdza je paczkami przez
+ * {@link TemperatureService#importReadings(List)} - jedna transakcja i batchowane INSERT-y na paczkę
+ * zamiast commitu na każdy odczyt.
+ *
+ * <p>Paczka jest zamykana po {@code batch-size} odczytach albo po {@code max-delay} od pierwszego z nich.
+ * Przy pełnej kolejce żądanie jest odrzucane (503) od razu albo po {@code block-timeout}. Przy zamykaniu
+ * aplikacji kolejka przestaje przyjmować odczyty, a wątek zapisuje wszystko, co w niej zostało - faza
+ * cyklu życia jest niższa niż serwera WWW, więc dzieje się to po obsłużeniu ostatnich żądań.
+ */
+@Component
+@Slf4j
+public class TemperatureIngestQueue implements SmartLifecycle, MeterBinder {
+
+    private final TemperatureService temperatureService;
+    private final TemperatureProperties.Ingest properties;
+    private final BlockingQueue<Pending> queue;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public TemperatureIngestQueue(TemperatureService temperatureService, TemperatureProperties properties) {
+        this.temperatureService = temperatureService;
+        this.properties = properties.getIngest();
+        this.queue = new ArrayBlockingQueue<>(this.properties.getQueueCapacity());
+    }
+
+    /**
+     * Przyjmuje odczyt. Dla {@link TemperatureIngestAck#NONE} zwraca null zaraz po wstawieniu do kolejki,
+     * dla {@link TemperatureIngestAck#COMMIT} czeka na zatwierdzenie paczki i zwraca zapisany odczyt.
+     * Przy wyłączonym trybie odczyt jest zapisywany od razu, niezależnie od ack.
+     */
+    public TemperatureReading ingest(TemperatureCreateRequest request, TemperatureIngestAck ack) {
+        if (!properties.isEnabled()) {
+            return temperatureService.createReading(request);
+        }
+
+        Pending pending = new Pending(TemperatureService.toReading(request),
+                ack == TemperatureIngestAck.COMMIT ? new CompletableFuture<>() : null);
+        enqueue(pending);
+        accepted.incrementAndGet();
+
+        return pending.committed == null ? null : awaitCommit(pending.committed);
+    }
+
+    public TemperatureIngestAck defaultAck() {
+        return TemperatureIngestAck.from(properties.getDefaultAck());
+    }
+
+    public TemperatureIngestStats stats() {
+        return TemperatureIngestStats.builder()
+                .enabled(properties.isEnabled())
+                .running(running)
+                .queueDepth(queue.size())
+                .queueCapacity(properties.getQueueCapacity())
+                .accepted(accepted.get())
+                .rejected(rejected.get())
+                .committed(committed.get())
+                .failed(failed.get())
+                .batches(batches.get())
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("temperature.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Odczyty oczekujące w kolejce zapisu")
+                .register(registry);
+        readingsCounter(registry, "accepted", accepted);
+        readingsCounter(registry, "rejected", rejected);
+        readingsCounter(registry, "committed", committed);
+        readingsCounter(registry, "failed", failed);
+        FunctionCounter.builder("temperature.ingest.batches", batches, AtomicLong::get)
+                .description("Paczki zatwierdzone przez kolejkę zapisu")
+                .register(registry);
+    }
+
+    private static void readingsCounter(MeterRegistry registry, String result, AtomicLong counter) {
+        FunctionCounter.builder("temperature.ingest.readings", counter, AtomicLong::get)
+                .description("Odczyty przyjęte, odrzucone i zapisane przez kolejkę zapisu")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private void enqueue(Pending pending) {
+        boolean offered;
+        if (!running) {
+            offered = false;
+        } else if (properties.getQueueFullPolicy() == TemperatureProperties.Ingest.QueueFullPolicy.BLOCK) {
+            try {
+                offered = queue.offer(pending, properties.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                offered = false;
+            }
+        } else {
+            offered = queue.offer(pending);
+        }
+
+        if (!offered) {
+            rejected.incrementAndGet();
+            throw new TemperatureServiceOverloadedException(running
+                    ? "Kolejka zapisu jest pełna (" + properties.getQueueCapacity() + " odczytów)"
+                    : "Kolejka zapisu jest zamknięta");
+        }
+    }
+
+    private TemperatureReading awaitCommit(CompletableFuture<TemperatureReading> committed) {
+        try {
+            return committed.get(properties.getCommitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new TemperatureServiceOverloadedException("Odczyt przyjęty, ale nie zatwierdzony w wymaganym czasie");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TemperatureServiceOverloadedException("Przerwano oczekiwanie na zatwierdzenie odczytu");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+        }
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(properties.getBatchSize());
+        try {
+            while (running || !queue.isEmpty()) {
+                Pending first = queue.poll(properties.getMaxDelay().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, System.nanoTime() + properties.getMaxDelay().toNanos());
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Kolejka mogła zostać zapełniona tuż przed zmianą flagi running
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void collect(List<Pending> batch, long deadline) throws InterruptedException {
+        while (batch.size() < properties.getBatchSize()) {
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getBatchSize() || remaining <= 0 || !running) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<TemperatureReading> readings = batch.stream().map(pending -> pending.reading).toList();
+        try {
+            List<TemperatureReading> saved = temperatureService.importReadings(readings);
+            batches.incrementAndGet();
+            committed.addAndGet(saved.size());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Zapis paczki {} odczytów nie powiódł się, zapis pojedynczo: {}", batch.size(), e.getMessage());
+            batch.forEach(this::writeSingle);
+        }
+    }
+
+    private void writeSingle(Pending pending) {
+        // Odczyt z nieudanej paczki mógł dostać id z sekwencji - zapisujemy go jako nowy
+        pending.reading.setId(null);
+        try {
+            TemperatureReading saved = temperatureService.importReadings(List.of(pending.reading)).get(0);
+            committed.incrementAndGet();
+            complete(pending, saved);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.error("Odrzucono odczyt z kolejki zapisu: {}", e.getMessage());
+            if (pending.committed != null) {
+                pending.committed.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static void complete(Pending pending, TemperatureReading saved) {
+        if (pending.committed != null) {
+            pending.committed.complete(saved);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!properties.isEnabled()) {
+            return;
+        }
+        writer = new Thread(this::runWriter, "temperature-ingest-writer");
+        writer.start();
+        log.info("Kolejka zapisu uruchomiona: pojemność {}, paczka {}, opóźnienie {}",
+                properties.getQueueCapacity(), properties.getBatchSize(), properties.getMaxDelay());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        log.info("Zamykanie kolejki zapisu, pozostało {} odczytów", queue.size());
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Kolejka zapisu opróżniona, zatwierdzono łącznie {} odczytów", committed.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Zatrzymanie po serwerze WWW (DEFAULT_PHASE - 2048), a przed zamknięciem puli połączeń
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private static final class Pending {
+        private final TemperatureReading reading;
+        private final CompletableFuture<TemperatureReading> committed;
+
+        private Pending(TemperatureReading reading, CompletableFuture<TemperatureReading> committed) {
+            this.reading = reading;
+            this.committed = committed;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureIngestStats {
+
+    private boolean enabled;
+    private boolean running;
+    private int queueDepth;
+    private int queueCapacity;
+    private long accepted;
+    private long rejected;
+    private long committed;
+    private long failed;
+    private long batches;
+}
@@ -0,0 +1,180 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bufor cykliczny ostatnio dodanych odczytów - źródło dla /latest i strumienia SSE.
+ *
+ * <p>Czytelnicy działają bez blokad: zapis rezerwuje numery sekwencyjne przez {@link AtomicLong}, a następnie
+ * publikuje niezmienne sloty w {@link AtomicReferenceArray}. Slot pamięta swój numer, więc czytelnik odróżnia
+ * slot jeszcze niezapisany (numer mniejszy od oczekiwanego) od nadpisanego przez nowszy odczyt (numer większy).
+ * Aktualizacja podmienia odczyt w jego slocie, a usunięcie zostawia w slocie pusty odczyt (tombstone), dzięki
+ * czemu kolejność dodania zostaje zachowana. Slot odczytu znajduje indeks id → slot, więc zmiana kosztuje
+ * O(liczba zmienionych odczytów), a nie przegląd całego bufora na każdy odczyt. Zapisy są serializowane
+ * monitorem bufora, żeby indeks zgadzał się z zawartością slotów. Sloty trzymają niezmienne
+ * {@link TemperatureReadingView}, budowane raz przy zapisie, więc odczyt /latest nie kopiuje wierszy.
+ */
+@Component
+@Slf4j
+public class TemperatureLatestBuffer implements SmartInitializingSingleton {
+
+    private final TemperatureReadingRepository temperatureRepository;
+    private final int capacity;
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong next = new AtomicLong();
+    // Id odczytu → indeks slotu; zmieniany tylko pod monitorem bufora
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    public TemperatureLatestBuffer(TemperatureReadingRepository temperatureRepository, TemperatureProperties properties) {
+        this.temperatureRepository = temperatureRepository;
+        this.capacity = properties.getLatest().getCapacity();
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        List<TemperatureReadingView> latest = new ArrayList<>(temperatureRepository.findLatestViews(Limit.of(capacity)));
+        Collections.reverse(latest);
+        append(latest);
+        log.info("Bufor najnowszych odczytów wypełniony {} odczytami", latest.size());
+    }
+
+    @Order(TemperatureReadingsChangedEvent.DERIVED_STATE_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReadingsChanged(TemperatureReadingsChangedEvent event) {
+        Map<Long, TemperatureReadingView> replacements = new HashMap<>();
+        event.getAdded().forEach(reading -> replacements.put(reading.getId(), TemperatureReadingView.from(reading)));
+
+        for (TemperatureReading removed : event.getRemoved()) {
+            // Aktualizacja (ten sam id po obu stronach) podmienia odczyt, samo usunięcie zostawia tombstone
+            replace(removed.getId(), replacements.remove(removed.getId()));
+        }
+        append(event.getAdded().stream()
+                .map(reading -> replacements.get(reading.getId()))
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Numer sekwencyjny, który otrzyma kolejny dodany odczyt
+    public long head() {
+        return next.get();
+    }
+
+    /**
+     * Najwyżej {@code limit} ostatnio dodanych odczytów, od najnowszego.
+     */
+    public List<TemperatureReadingView> latest(int limit) {
+        long head = next.get();
+        long oldest = Math.max(0, head - capacity);
+        List<TemperatureReadingView> latest = new ArrayList<>(Math.min(limit, capacity));
+
+        for (long sequence = head - 1; sequence >= oldest && latest.size() < limit; sequence--) {
+            Slot slot = slots.get(index(sequence));
+            if (slot != null && slot.sequence == sequence && slot.reading != null) {
+                latest.add(slot.reading);
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Kolejne odczyty od numeru {@code from} włącznie, najwyżej {@code max}. Czytanie kończy się na pierwszym
+     * slocie, którego zapis jeszcze trwa. Odczyty nadpisane, zanim czytelnik do nich dotarł, są liczone w
+     * {@link Batch#getDropped()}.
+     */
+    public Batch readFrom(long from, int max) {
+        long head = next.get();
+        long sequence = Math.max(from, head - capacity);
+        long dropped = sequence - from;
+        List<Entry> entries = new ArrayList<>();
+
+        while (sequence < head && entries.size() < max) {
+            Slot slot = slots.get(index(sequence));
+            if (slot == null || slot.sequence < sequence) {
+                break;
+            }
+            if (slot.sequence > sequence) {
+                dropped++;
+            } else if (slot.reading != null) {
+                entries.add(new Entry(sequence, slot.reading));
+            }
+            sequence++;
+        }
+        return new Batch(entries, sequence, dropped);
+    }
+
+    private void append(List<TemperatureReadingView> readings) {
+        if (readings.isEmpty()) {
+            return;
+        }
+        long first = next.getAndAdd(readings.size());
+        // Z paczki większej niż bufor przetrwałaby i tak tylko końcówka
+        int skip = Math.max(0, readings.size() - capacity);
+        for (int i = skip; i < readings.size(); i++) {
+            long sequence = first + i;
+            int index = index(sequence);
+            Slot evicted = slots.getAndSet(index, new Slot(sequence, readings.get(i)));
+            if (evicted != null && evicted.reading != null) {
+                slotById.remove(evicted.reading.getId(), index);
+            }
+            slotById.put(readings.get(i).getId(), index);
+        }
+    }
+
+    private void replace(Long id, TemperatureReadingView replacement) {
+        Integer index = replacement != null ? slotById.get(id) : slotById.remove(id);
+        if (index == null) {
+            return;
+        }
+        Slot slot = slots.get(index);
+        slots.set(index, new Slot(slot.sequence, replacement));
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private static final class Slot {
+        private final long sequence;
+        private final TemperatureReadingView reading;
+
+        private Slot(long sequence, TemperatureReadingView reading) {
+            this.sequence = sequence;
+            this.reading = reading;
+        }
+    }
+
+    @Value
+    public static class Entry {
+        long sequence;
+        TemperatureReadingView reading;
+    }
+
+    @Value
+    public static class Batch {
+        List<Entry> entries;
+        // Pierwszy numer sekwencyjny do odczytania przy następnym wywołaniu
+        long next;
+        long dropped;
+    }
+}
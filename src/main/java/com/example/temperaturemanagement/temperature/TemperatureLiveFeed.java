@@ -0,0 +1,155 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import com.example.temperaturemanagement.exception.TemperatureServiceOverloadedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strumień SSE nowych odczytów czytany z {@link TemperatureLatestBuffer}.
+ *
+ * <p>Zapis tylko budzi subskrybentów - nigdy nie czeka na klienta. Każdy subskrybent ma własny kursor
+ * w buforze i najwyżej jedno zadanie wysyłki w puli wątków. Klient wolniejszy niż napływ danych zostaje
+ * w tyle; odczyty nadpisane w buforze, zanim zostały wysłane, są pomijane, a klient dostaje zdarzenie
+ * {@code dropped} z ich liczbą. Numer sekwencyjny odczytu jest identyfikatorem zdarzenia, więc po
+ * ponownym połączeniu z {@code Last-Event-ID} strumień wznawia się od następnego odczytu.
+ */
+@Component
+@Slf4j
+public class TemperatureLiveFeed implements DisposableBean, MeterBinder {
+
+    private final TemperatureLatestBuffer buffer;
+    private final TemperatureProperties.Stream properties;
+    private final ExecutorService sender;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public TemperatureLiveFeed(TemperatureLatestBuffer buffer, TemperatureProperties properties) {
+        this.buffer = buffer;
+        this.properties = properties.getStream();
+        AtomicInteger threads = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(this.properties.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "temperature-sse-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new TemperatureServiceOverloadedException(
+                    "Osiągnięto limit subskrybentów strumienia: " + properties.getMaxSubscribers());
+        }
+
+        long head = buffer.head();
+        long cursor = lastEventId == null ? head : Math.min(lastEventId + 1, head);
+        Subscriber subscriber = new Subscriber(new SseEmitter(properties.getTimeout().toMillis()), cursor);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        log.debug("Nowy subskrybent strumienia, aktywnych: {}", subscribers.size());
+        schedule(subscriber);
+        return subscriber.emitter;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReadingsChanged(TemperatureReadingsChangedEvent event) {
+        if (event.getAdded().isEmpty()) {
+            return;
+        }
+        subscribers.forEach(this::schedule);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("temperature.stream.subscribers", subscribers, Set::size)
+                .description("Aktywni subskrybenci strumienia SSE")
+                .register(registry);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.scheduled.compareAndSet(false, true)) {
+            // Trwająca wysyłka sama sprawdzi bufor jeszcze raz po zakończeniu
+            return;
+        }
+        try {
+            sender.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.scheduled.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            TemperatureLatestBuffer.Batch batch = buffer.readFrom(subscriber.cursor, properties.getMaxBatch());
+            if (batch.getDropped() > 0) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name("dropped")
+                        .data(Map.of("dropped", batch.getDropped()), MediaType.APPLICATION_JSON));
+            }
+            for (TemperatureLatestBuffer.Entry entry : batch.getEntries()) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(entry.getSequence()))
+                        .name("reading")
+                        .data(entry.getReading(), MediaType.APPLICATION_JSON));
+            }
+            subscriber.cursor = batch.getNext();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Subskrybent strumienia rozłączony: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // Jedna paczka na przebieg - reszta wraca na koniec kolejki, żeby subskrybenci dzielili wątki po równo.
+        // Sprawdzenie po zwolnieniu flagi łapie też odczyty dodane w trakcie wysyłki.
+        if (subscriber.cursor < buffer.head() && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Zmieniany tylko przez zadanie wysyłki, które dla danego subskrybenta działa najwyżej jedno naraz
+        private volatile long cursor;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperaturePage<T> {
+
+    private List<T> items;
+    private int limit;
+    private boolean hasMore;
+    // Token do przekazania jako parametr cursor, aby pobrać następną stronę
+    private String nextCursor;
+}
@@ -9,15 +9,26 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "temperature_readings")
+@Table(name = "temperature_readings", indexes = {
+        @Index(name = "idx_temperature_readings_date_hour_id", columnList = "date, reading_hour, id"),
+        @Index(name = "idx_temperature_readings_created_at", columnList = "created_at")
+}, uniqueConstraints = {
+        // Klucz naturalny odczytu - ponowny import tego samego pliku nie dubluje wierszy (NULL w source nie jest porównywany)
+        @UniqueConstraint(name = TemperatureReading.UNIQUE_KEY_NAME, columnNames = {"date", "reading_hour", "source"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class TemperatureReading {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String UNIQUE_KEY_NAME = "uk_temperature_readings_date_hour_source";
+
+    // Sekwencja z optymalizatorem pooled - IDENTITY wyłącza batchowanie INSERT-ów w Hibernate
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "temperature_readings_seq")
+    @SequenceGenerator(name = "temperature_readings_seq", sequenceName = "temperature_readings_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull(message = "Data jest wymagana")
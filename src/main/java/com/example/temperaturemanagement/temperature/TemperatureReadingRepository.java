@@ -1,17 +1,32 @@
 package com.example.temperaturemanagement.temperature;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TemperatureReadingRepository extends JpaRepository<TemperatureReading, Long> {
 
+    // Projekcja do odpowiedzi list - wyrażenie konstruktora zamiast encji, wynik poza kontekstem utrwalania
+    String SELECT_VIEW = "SELECT new com.example.temperaturemanagement.temperature.TemperatureReadingView(" +
+            "t.id, t.date, t.dayOfWeek, t.hour, t.temperature, t.source, t.createdAt, t.updatedAt) " +
+            "FROM TemperatureReading t ";
+
     // Automatyczne query methods - Spring tworzy SQL z nazw metod
     List<TemperatureReading> findByDate(LocalDate date);
 
@@ -25,14 +40,22 @@ public interface TemperatureReadingRepository extends JpaRepository<TemperatureR
 
     List<TemperatureReading> findByTemperatureBetween(Double minTemp, Double maxTemp);
 
+    // Import upsert - jedno zapytanie na paczkę; zwraca nadzbiór kluczy paczki, dopasowanie po kluczu w pamięci
+    List<TemperatureReading> findByDateInAndHourIn(Collection<LocalDate> dates, Collection<LocalTime> hours);
+
     // Custom queries - dla bardziej złożonych zapytań
     @Query("SELECT t FROM TemperatureReading t WHERE t.date = :date ORDER BY t.hour")
     List<TemperatureReading> findByDateOrderByHour(@Param("date") LocalDate date);
 
+    // Odczyty jednej daty dla cache dat - jako widoki
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_VIEW + "WHERE t.date = :date ORDER BY t.hour, t.id")
+    List<TemperatureReadingView> findViewsByDate(@Param("date") LocalDate date);
+
     @Query("SELECT AVG(t.temperature) FROM TemperatureReading t WHERE t.date = :date")
     Double getAverageTemperatureByDate(@Param("date") LocalDate date);
 
-    @Query("SELECT t.hour, AVG(t.temperature) FROM TemperatureReading t GROUP BY t.hour ORDER BY t.hour")
+    @Query("SELECT t.hour, AVG(t.temperature), COUNT(t) FROM TemperatureReading t GROUP BY t.hour ORDER BY t.hour")
     List<Object[]> getAverageTemperatureByHour();
 
     @Query("SELECT COUNT(t) FROM TemperatureReading t WHERE t.date = :date")
@@ -42,15 +65,134 @@ public interface TemperatureReadingRepository extends JpaRepository<TemperatureR
     @Query("SELECT AVG(t.temperature) FROM TemperatureReading t WHERE t.hour = :hour AND t.dayOfWeek = :dayOfWeek")
     Double getAverageTemperatureByHourAndDayOfWeek(@Param("hour") LocalTime hour, @Param("dayOfWeek") Integer dayOfWeek);
 
+    // Jeden skan zasilający macierz prognozy (dzień tygodnia x pełna godzina)
+    @Query("SELECT t.dayOfWeek, EXTRACT(HOUR FROM t.hour), SUM(t.temperature), COUNT(t) FROM TemperatureReading t " +
+            "GROUP BY t.dayOfWeek, EXTRACT(HOUR FROM t.hour)")
+    List<Object[]> sumTemperatureByDayOfWeekAndHour();
+
     // Statystyki temperatury
     @Query("SELECT MIN(t.temperature), MAX(t.temperature), AVG(t.temperature) FROM TemperatureReading t")
     Object[] getTemperatureStatistics();
 
-    // Najnowsze odczyty (dla dashboard)
-    @Query("SELECT t FROM TemperatureReading t ORDER BY t.createdAt DESC LIMIT 10")
-    List<TemperatureReading> findLatestReadings();
-
-    // Ostatni odczyt dla konkretnej daty
-    @Query("SELECT t FROM TemperatureReading t WHERE t.date = :date ORDER BY t.hour DESC LIMIT 1")
-    TemperatureReading findLatestReadingByDate(@Param("date") LocalDate date);
+    @Query("SELECT t.dayOfWeek, AVG(t.temperature), COUNT(t) FROM TemperatureReading t GROUP BY t.dayOfWeek ORDER BY t.dayOfWeek")
+    List<Object[]> getAverageTemperatureByDayOfWeek();
+
+    // Jeden skan budujący statystyki w pamięci (godzina, dzień tygodnia, temperatura, liczba wystąpień)
+    @Query("SELECT t.hour, t.dayOfWeek, t.temperature, COUNT(t) FROM TemperatureReading t " +
+            "GROUP BY t.hour, t.dayOfWeek, t.temperature")
+    List<Object[]> countReadingsByHourDayOfWeekAndTemperature();
+
+    // Najnowsze odczyty - wypełnienie bufora /latest przy starcie
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_VIEW + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TemperatureReadingView> findLatestViews(Limit limit);
+
+    // Stronicowanie keyset po (date, hour, id) zwracające widoki - ścieżka odczytu endpointów listujących
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_VIEW +
+            "WHERE (:source IS NULL OR t.source = :source) " +
+            "AND (:startDate IS NULL OR t.date >= :startDate) " +
+            "AND (:endDate IS NULL OR t.date <= :endDate) " +
+            "ORDER BY t.date, t.hour, t.id")
+    List<TemperatureReadingView> findFirstPageViews(@Param("source") String source,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate,
+                                                    Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_VIEW +
+            "WHERE (:source IS NULL OR t.source = :source) " +
+            "AND (:startDate IS NULL OR t.date >= :startDate) " +
+            "AND (:endDate IS NULL OR t.date <= :endDate) " +
+            "AND (t.date > :afterDate OR (t.date = :afterDate AND " +
+            "(t.hour > :afterHour OR (t.hour = :afterHour AND t.id > :afterId)))) " +
+            "ORDER BY t.date, t.hour, t.id")
+    List<TemperatureReadingView> findPageAfterViews(@Param("source") String source,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate,
+                                                    @Param("afterDate") LocalDate afterDate,
+                                                    @Param("afterHour") LocalTime afterHour,
+                                                    @Param("afterId") Long afterId,
+                                                    Limit limit);
+
+    // Strumień do eksportu - wiersze pobierane kursorem JDBC, bez ładowania całego wyniku do pamięci
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM TemperatureReading t WHERE t.date BETWEEN :startDate AND :endDate ORDER BY t.date, t.hour, t.id")
+    Stream<TemperatureReading> streamByDateBetween(@Param("startDate") LocalDate startDate,
+                                                   @Param("endDate") LocalDate endDate);
+
+    long countByDateBetween(LocalDate startDate, LocalDate endDate);
+
+    // Strumień do serii na wykres - tylko (data, godzina, temperatura), bez budowania encji
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.date, t.hour, t.temperature FROM TemperatureReading t " +
+            "WHERE t.date BETWEEN :startDate AND :endDate ORDER BY t.date, t.hour, t.id")
+    Stream<Object[]> streamSeriesByDateBetween(@Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    // Najstarsze odczyty sprzed granicy retencji - blokada, żeby równoległa aktualizacja nie zginęła przy kompaktowaniu
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TemperatureReading t WHERE t.date < :cutoff ORDER BY t.date, t.id")
+    List<TemperatureReading> lockOldestBefore(@Param("cutoff") LocalDate cutoff, Limit limit);
+
+    // Plan zmiany wielu odczytów: data, liczba odczytów, MIN i MAX temperatury - bez ładowania samych odczytów
+    @Query("SELECT t.date, COUNT(t), MIN(t.temperature), MAX(t.temperature) FROM TemperatureReading t " +
+            "WHERE t.date BETWEEN :startDate AND :endDate AND (:source IS NULL OR t.source = :source) " +
+            "GROUP BY t.date ORDER BY t.date")
+    List<Object[]> summarizeByDateBetween(@Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("source") String source);
+
+    // Instrukcje zmieniające jednym poleceniem SQL. H2 zwraca poprzednią wersję zmienionych wierszy
+    // (OLD TABLE), więc liczba zmienionych wierszy i zdarzenie dla danych pochodnych nie wymagają osobnego odczytu.
+    @Transactional
+    @Query(value = "SELECT * FROM OLD TABLE (DELETE FROM temperature_readings WHERE id = :id)", nativeQuery = true)
+    List<TemperatureReading> deleteReturningById(@Param("id") Long id);
+
+    @Transactional
+    @Query(value = "SELECT * FROM OLD TABLE (DELETE FROM temperature_readings " +
+            "WHERE date BETWEEN :startDate AND :endDate AND (CAST(:source AS VARCHAR) IS NULL OR source = :source))", nativeQuery = true)
+    List<TemperatureReading> deleteReturningByDateBetween(@Param("startDate") LocalDate startDate,
+                                                          @Param("endDate") LocalDate endDate,
+                                                          @Param("source") String source);
+
+    @Transactional
+    @Query(value = "SELECT * FROM OLD TABLE (UPDATE temperature_readings " +
+            "SET temperature = temperature + :offset, updated_at = :now " +
+            "WHERE date BETWEEN :startDate AND :endDate AND (CAST(:source AS VARCHAR) IS NULL OR source = :source))", nativeQuery = true)
+    List<TemperatureReading> shiftTemperatureReturning(@Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate,
+                                                       @Param("source") String source,
+                                                       @Param("offset") double offset,
+                                                       @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Query(value = "SELECT * FROM OLD TABLE (UPDATE temperature_readings " +
+            "SET temperature = :temperature, updated_at = :now " +
+            "WHERE date BETWEEN :startDate AND :endDate AND (CAST(:source AS VARCHAR) IS NULL OR source = :source))", nativeQuery = true)
+    List<TemperatureReading> setTemperatureReturning(@Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate,
+                                                     @Param("source") String source,
+                                                     @Param("temperature") double temperature,
+                                                     @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Query(value = "SELECT * FROM OLD TABLE (UPDATE temperature_readings " +
+            "SET source = :newSource, updated_at = :now " +
+            "WHERE date BETWEEN :startDate AND :endDate AND (CAST(:source AS VARCHAR) IS NULL OR source = :source))", nativeQuery = true)
+    List<TemperatureReading> setSourceReturning(@Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate,
+                                                @Param("source") String source,
+                                                @Param("newSource") String newSource,
+                                                @Param("now") LocalDateTime now);
+
+    // Ostatni odczyt dla konkretnej daty - ten sam porządek (godzina, id) co strony i cache dat
+    @Query(SELECT_VIEW + "WHERE t.date = :date ORDER BY t.hour DESC, t.id DESC LIMIT 1")
+    TemperatureReadingView findLatestViewByDate(@Param("date") LocalDate date);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Niezmienny odczyt do odpowiedzi endpointów listujących (/, /date, /range, /latest). Zapytania budują go
+ * wyrażeniem konstruktora, więc wiersz nie trafia do kontekstu utrwalania - bez kopii stanu do sprawdzania
+ * zmian i bez wpisu w mapie encji. JSON jest taki sam jak dla {@link TemperatureReading}.
+ */
+@Value
+public class TemperatureReadingView {
+
+    Long id;
+    LocalDate date;
+    Integer dayOfWeek;
+    LocalTime hour;
+    Double temperature;
+    String source;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+
+    public static TemperatureReadingView from(TemperatureReading reading) {
+        return new TemperatureReadingView(reading.getId(), reading.getDate(), reading.getDayOfWeek(),
+                reading.getHour(), reading.getTemperature(), reading.getSource(),
+                reading.getCreatedAt(), reading.getUpdatedAt());
+    }
+}
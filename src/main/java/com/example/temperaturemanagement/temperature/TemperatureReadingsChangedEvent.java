@@ -0,0 +1,53 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Zmiana zbioru odczytów publikowana przez {@link TemperatureService} przy każdym zapisie.
+ * Aktualizacja to usunięcie starej wersji odczytu i dodanie nowej, dzięki czemu słuchacze
+ * utrzymujący dane pochodne (statystyki, cache, ...) obsługują tylko dwie operacje.
+ *
+ * <p>Zdarzenie z {@code compaction = true} publikuje {@link TemperatureRetentionCompactor}: odczyty zniknęły
+ * z tabeli surowej, ale ich wartości są już w agregatach godzinowych. Słuchacze liczący statystyki wszystkich
+ * danych (statystyki globalne, podsumowania dzienne) nie odejmują takich odczytów, a pozostali traktują je
+ * jak zwykłe usunięcie.
+ */
+@Value
+public class TemperatureReadingsChangedEvent {
+
+    // Kolejność słuchaczy po zatwierdzeniu: dane pochodne przed podbiciem wersji danych
+    public static final int DERIVED_STATE_ORDER = 0;
+
+    List<TemperatureReading> removed;
+    List<TemperatureReading> added;
+    boolean compaction;
+
+    public TemperatureReadingsChangedEvent(List<TemperatureReading> removed, List<TemperatureReading> added) {
+        this(removed, added, false);
+    }
+
+    public TemperatureReadingsChangedEvent(List<TemperatureReading> removed, List<TemperatureReading> added,
+                                           boolean compaction) {
+        this.removed = removed;
+        this.added = added;
+        this.compaction = compaction;
+    }
+
+    public static TemperatureReadingsChangedEvent created(List<TemperatureReading> readings) {
+        return new TemperatureReadingsChangedEvent(List.of(), List.copyOf(readings));
+    }
+
+    public static TemperatureReadingsChangedEvent updated(TemperatureReading before, TemperatureReading after) {
+        return new TemperatureReadingsChangedEvent(List.of(before), List.of(after));
+    }
+
+    public static TemperatureReadingsChangedEvent deleted(TemperatureReading reading) {
+        return new TemperatureReadingsChangedEvent(List.of(reading), List.of());
+    }
+
+    public static TemperatureReadingsChangedEvent compacted(List<TemperatureReading> readings) {
+        return new TemperatureReadingsChangedEvent(List.copyOf(readings), List.of(), true);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Retencja odczytów (temperature.retention.enabled): w tle, co {@code interval}, surowe odczyty starsze niż
+ * {@code raw-retention} są przenoszone do agregatów godzinowych, a agregaty godzinowe starsze niż
+ * {@code hourly-retention} - do dziennych. Każda paczka to osobna transakcja z najwyżej {@code batch-size}
+ * wierszami, a między paczkami jest przerwa {@code pause}.
+ *
+ * <p>Przeniesienie nie zmienia statystyk ani podsumowań dziennych - zdarzenie kompaktowania jest dla nich
+ * przesunięciem danych, nie usunięciem. Dziennik trwały (temperature.storage) nie przechowuje agregatów,
+ * więc przy włączonym dzienniku retencja nie startuje.
+ */
+@Component
+@Slf4j
+public class TemperatureRetentionCompactor implements InitializingBean, DisposableBean, MeterBinder {
+
+    private final TemperatureProperties.Retention properties;
+    private final boolean storageEnabled;
+    private final TemperatureReadingRepository temperatureRepository;
+    private final TemperatureRollupRepository rollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    private final AtomicLong compactedReadings = new AtomicLong();
+    private final AtomicLong mergedRollups = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    public TemperatureRetentionCompactor(TemperatureProperties properties,
+                                         TemperatureReadingRepository temperatureRepository,
+                                         TemperatureRollupRepository rollupRepository,
+                                         ApplicationEventPublisher eventPublisher,
+                                         PlatformTransactionManager transactionManager,
+                                         EntityManager entityManager) {
+        this.properties = properties.getRetention();
+        this.storageEnabled = properties.getStorage().isEnabled();
+        this.temperatureRepository = temperatureRepository;
+        this.rollupRepository = rollupRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (storageEnabled) {
+            log.warn("Retencja wyłączona - dziennik trwały (temperature.storage) nie przechowuje agregatów");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "temperature-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::compact, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Retencja: surowe odczyty {}, agregaty godzinowe {}, przebieg co {}",
+                properties.getRawRetention(), properties.getHourlyRetention(), properties.getInterval());
+    }
+
+    /**
+     * Jeden przebieg retencji: najpierw surowe odczyty, potem agregaty godzinowe, aż do granic wyznaczonych
+     * względem bieżącej daty.
+     */
+    public void compact() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        try {
+            long readings = repeat(() -> compactReadings(today.minus(properties.getRawRetention())));
+            compactedReadings.addAndGet(readings);
+            long rollups = repeat(() -> mergeHourlyRollups(today.minus(properties.getHourlyRetention())));
+            mergedRollups.addAndGet(rollups);
+            if (readings > 0 || rollups > 0) {
+                log.info("Retencja: {} odczytów w agregatach godzinowych, {} agregatów godzinowych w dziennych w {} ms",
+                        readings, rollups, (System.nanoTime() - start) / 1_000_000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Retencja odczytów nie powiodła się: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        FunctionCounter.builder("temperature.retention.compacted", compactedReadings, AtomicLong::get)
+                .description("Surowe odczyty przeniesione do agregatów godzinowych")
+                .register(registry);
+        FunctionCounter.builder("temperature.retention.merged", mergedRollups, AtomicLong::get)
+                .description("Agregaty godzinowe scalone w agregaty dzienne")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    // Paczki w osobnych transakcjach, dopóki któraś nie okaże się pusta
+    private long repeat(IntSupplier batch) throws InterruptedException {
+        long total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> batch.getAsInt());
+            if (moved == null || moved == 0) {
+                return total;
+            }
+            total += moved;
+            Thread.sleep(properties.getPause().toMillis());
+        }
+    }
+
+    private int compactReadings(LocalDate cutoff) {
+        List<TemperatureReading> readings = temperatureRepository.lockOldestBefore(cutoff, Limit.of(properties.getBatchSize()));
+        if (readings.isEmpty()) {
+            return 0;
+        }
+        // Każda instrukcja agregatu robi flush - bez odłączenia sprawdzałby on za każdym razem całą paczkę
+        readings.forEach(entityManager::detach);
+
+        Map<TemperatureRollup.Key, RollupDelta> hourly = new LinkedHashMap<>();
+        for (TemperatureReading reading : readings) {
+            TemperatureRollup.Key key = new TemperatureRollup.Key(TemperatureRollupLevel.HOUR, reading.getDate(),
+                    reading.getHour().truncatedTo(ChronoUnit.HOURS), reading.getDayOfWeek());
+            hourly.computeIfAbsent(key, k -> new RollupDelta()).add(reading.getTemperature());
+        }
+        hourly.forEach(this::addToRollup);
+        temperatureRepository.deleteAllInBatch(readings);
+        eventPublisher.publishEvent(TemperatureReadingsChangedEvent.compacted(readings));
+        return readings.size();
+    }
+
+    // Całe dni naraz - agregat dzienny nie może powstać z części godzin; dzień ma zwykle po jednym agregacie na godzinę
+    private int mergeHourlyRollups(LocalDate cutoff) {
+        int merged = 0;
+        Limit days = Limit.of(Math.max(1, properties.getBatchSize() / 24));
+        for (LocalDate date : rollupRepository.findOldestDatesBefore(TemperatureRollupLevel.HOUR, cutoff, days)) {
+            List<TemperatureRollup> hourly = rollupRepository.findByLevelAndDateOrderByHour(TemperatureRollupLevel.HOUR, date);
+            hourly.forEach(entityManager::detach);
+            Map<TemperatureRollup.Key, RollupDelta> daily = new LinkedHashMap<>();
+            for (TemperatureRollup rollup : hourly) {
+                TemperatureRollup.Key key = new TemperatureRollup.Key(TemperatureRollupLevel.DAY, rollup.getDate(),
+                        LocalTime.MIDNIGHT, rollup.getDayOfWeek());
+                daily.computeIfAbsent(key, k -> new RollupDelta()).add(rollup);
+            }
+            rollupRepository.deleteByLevelAndDate(TemperatureRollupLevel.HOUR, date);
+            daily.forEach(this::addToRollup);
+            eventPublisher.publishEvent(new TemperatureRollupsMergedEvent(List.copyOf(hourly)));
+            merged += hourly.size();
+        }
+        return merged;
+    }
+
+    private void addToRollup(TemperatureRollup.Key key, RollupDelta delta) {
+        rollupRepository.addToRollup(key.getLevel(), key.getDate(), key.getHour(), key.getDayOfWeek(),
+                delta.count, delta.sum, delta.sumOfSquares, delta.min, delta.max);
+    }
+
+    private static final class RollupDelta {
+        private long count;
+        private double sum;
+        private double sumOfSquares;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private void add(double temperature) {
+            count++;
+            sum += temperature;
+            sumOfSquares += temperature * temperature;
+            min = Math.min(min, temperature);
+            max = Math.max(max, temperature);
+        }
+
+        private void add(TemperatureRollup rollup) {
+            count += rollup.getReadingCount();
+            sum += rollup.getTemperatureSum();
+            sumOfSquares += rollup.getTemperatureSumOfSquares();
+            min = Math.min(min, rollup.getMinTemperature());
+            max = Math.max(max, rollup.getMaxTemperature());
+        }
+    }
+}
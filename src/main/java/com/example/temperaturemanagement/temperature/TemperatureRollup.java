@@ -0,0 +1,74 @@
+package com.example.temperaturemanagement.temperature;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Agregat odczytów usuniętych z temperature_readings przez retencję ({@link TemperatureRetentionCompactor}).
+ * Poziom HOUR grupuje odczyty po (data, pełna godzina, dzień tygodnia) bez względu na źródło, poziom DAY
+ * po (data, dzień tygodnia) z godziną 00:00. Suma kwadratów jak w {@link TemperatureDailySummary},
+ * żeby podsumowanie dnia dało się przeliczyć także po kompaktowaniu.
+ */
+@Entity
+@Table(name = "temperature_rollups")
+@IdClass(TemperatureRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 4)
+    private TemperatureRollupLevel level;
+
+    @Id
+    private LocalDate date;
+
+    @Id
+    @Column(name = "reading_hour")
+    private LocalTime hour;
+
+    @Id
+    @Column(name = "day_of_week")
+    private Integer dayOfWeek;
+
+    @Column(name = "reading_count", nullable = false)
+    private long readingCount;
+
+    @Column(name = "temperature_sum", nullable = false)
+    private double temperatureSum;
+
+    @Column(name = "temperature_sum_of_squares", nullable = false)
+    private double temperatureSumOfSquares;
+
+    @Column(name = "min_temperature", nullable = false)
+    private double minTemperature;
+
+    @Column(name = "max_temperature", nullable = false)
+    private double maxTemperature;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private TemperatureRollupLevel level;
+        private LocalDate date;
+        private LocalTime hour;
+        private Integer dayOfWeek;
+    }
+}
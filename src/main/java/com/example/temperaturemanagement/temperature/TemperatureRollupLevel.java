@@ -0,0 +1,9 @@
+package com.example.temperaturemanagement.temperature;
+
+/**
+ * Poziom agregatu w {@link TemperatureRollup}: pełna godzina dnia albo cały dzień.
+ */
+public enum TemperatureRollupLevel {
+    HOUR,
+    DAY
+}
@@ -0,0 +1,75 @@
+package com.example.temperaturemanagement.temperature;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface TemperatureRollupRepository extends JpaRepository<TemperatureRollup, TemperatureRollup.Key> {
+
+    // Dodanie grupy odczytów do agregatu jedną instrukcją (wstawienie albo zwiększenie sum)
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO TemperatureRollup " +
+            "(level, date, hour, dayOfWeek, readingCount, temperatureSum, temperatureSumOfSquares, minTemperature, maxTemperature) " +
+            "VALUES (:level, :date, :hour, :dayOfWeek, :count, :sum, :sumOfSquares, :min, :max) " +
+            "ON CONFLICT(level, date, hour, dayOfWeek) DO UPDATE SET " +
+            "readingCount = readingCount + excluded.readingCount, " +
+            "temperatureSum = temperatureSum + excluded.temperatureSum, " +
+            "temperatureSumOfSquares = temperatureSumOfSquares + excluded.temperatureSumOfSquares, " +
+            "minTemperature = LEAST(minTemperature, excluded.minTemperature), " +
+            "maxTemperature = GREATEST(maxTemperature, excluded.maxTemperature)")
+    int addToRollup(@Param("level") TemperatureRollupLevel level,
+                    @Param("date") LocalDate date,
+                    @Param("hour") LocalTime hour,
+                    @Param("dayOfWeek") Integer dayOfWeek,
+                    @Param("count") long count,
+                    @Param("sum") double sum,
+                    @Param("sumOfSquares") double sumOfSquares,
+                    @Param("min") double min,
+                    @Param("max") double max);
+
+    @Query("SELECT r.date FROM TemperatureRollup r WHERE r.level = :level AND r.date < :cutoff " +
+            "GROUP BY r.date ORDER BY r.date")
+    List<LocalDate> findOldestDatesBefore(@Param("level") TemperatureRollupLevel level,
+                                          @Param("cutoff") LocalDate cutoff,
+                                          Limit limit);
+
+    List<TemperatureRollup> findByLevelAndDateOrderByHour(TemperatureRollupLevel level, LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM TemperatureRollup r WHERE r.level = :level AND r.date = :date")
+    int deleteByLevelAndDate(@Param("level") TemperatureRollupLevel level, @Param("date") LocalDate date);
+
+    // Część podsumowania dnia przeniesiona do agregatów (count, sum, sum of squares, min, max)
+    @Query("SELECT COALESCE(SUM(r.readingCount), 0), SUM(r.temperatureSum), SUM(r.temperatureSumOfSquares), " +
+            "MIN(r.minTemperature), MAX(r.maxTemperature) FROM TemperatureRollup r WHERE r.date = :date")
+    List<Object[]> aggregateByDate(@Param("date") LocalDate date);
+
+    // Statystyki wszystkich agregatów (poziom, godzina, dzień tygodnia, liczba, suma, min, max) - najwyżej 2 x 24 x 7 wierszy
+    @Query("SELECT r.level, r.hour, r.dayOfWeek, SUM(r.readingCount), SUM(r.temperatureSum), " +
+            "MIN(r.minTemperature), MAX(r.maxTemperature) FROM TemperatureRollup r " +
+            "GROUP BY r.level, r.hour, r.dayOfWeek")
+    List<Object[]> sumByLevelHourAndDayOfWeek();
+
+    @Query("SELECT COUNT(r) FROM TemperatureRollup r WHERE r.date BETWEEN :startDate AND :endDate")
+    long countByDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM TemperatureRollup r WHERE r.date BETWEEN :startDate AND :endDate ORDER BY r.date, r.hour")
+    Stream<TemperatureRollup> streamByDateBetween(@Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+}
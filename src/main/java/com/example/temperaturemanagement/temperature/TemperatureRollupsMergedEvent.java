@@ -0,0 +1,15 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Agregaty godzinowe jednego dnia zastąpione agregatem dziennym przez {@link TemperatureRetentionCompactor}.
+ * Liczby, sumy i skrajne wartości się nie zmieniają - znika tylko podział na godziny.
+ */
+@Value
+public class TemperatureRollupsMergedEvent {
+
+    List<TemperatureRollup> hourly;
+}
@@ -0,0 +1,609 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Dziennik odczytów tylko do dopisywania: segmenty stałej wielkości z rekordami stałej szerokości,
+ * zapisywane przez pliki mapowane w pamięci. Dodanie odczytu to rekord PUT, usunięcie - rekord TOMBSTONE
+ * z samym id, aktualizacja - oba (tak jak w {@link TemperatureReadingsChangedEvent}).
+ *
+ * <p>Rekord (52 bajty): typ, dzień tygodnia, flagi, bajt wolny, id źródła, id odczytu, dzień epoki, sekunda doby,
+ * temperatura, createdAt i updatedAt w mikrosekundach epoki (UTC) oraz CRC32 poprzednich 48 bajtów.
+ * Typ 0 oznacza wolne miejsce, czyli koniec danych. Nazwy źródeł są w osobnym słowniku {@code sources.dat}.
+ *
+ * <p>Transakcja z jednym rekordem jest atomowa dzięki CRC. Rekordy transakcji wielorekordowej mają flagę
+ * {@code IN_BATCH}, a po nich zapisywany jest rekord COMMIT z numerem sekwencyjnym pierwszego z nich.
+ * Odtworzenie stosuje takie rekordy dopiero po znalezieniu ich COMMIT; rekordy bez zakończenia (awaria albo
+ * błąd w połowie zapisu, po którym baza wycofała transakcję) są odrzucane. Indeks w pamięci zmienia się
+ * dopiero po zapisaniu wszystkich rekordów transakcji.
+ *
+ * <p>W pamięci jest indeks aktualnych odczytów (id → rekord). Snapshot zapisuje go do jednego pliku
+ * z numerem sekwencyjnym pierwszego niepokrytego rekordu; segmenty w całości starsze są wtedy usuwane.
+ * Odtworzenie to sekwencyjny odczyt snapshotu i dalszej części dziennika. Rekord z błędnym CRC na końcu
+ * ostatniego segmentu to niedokończony zapis sprzed awarii - jest odrzucany, a dalsze dopisywanie go nadpisuje.
+ */
+@Slf4j
+public class TemperatureSegmentLog implements Closeable {
+
+    static final int RECORD_SIZE = 52;
+    private static final int CRC_OFFSET = 48;
+    private static final byte PUT = 1;
+    private static final byte TOMBSTONE = 2;
+    private static final byte COMMIT = 3;
+    private static final int FLAGS_OFFSET = 2;
+    private static final byte IN_BATCH = 1;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final long SNAPSHOT_MAGIC = 0x54454d50534e4150L;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_SIZE = 32;
+    private static final int SNAPSHOT_BUFFER_RECORDS = 4096;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String SOURCES_FILE = "sources.dat";
+
+    private final Path directory;
+    private final int segmentCapacity;
+
+    private final Map<Long, Entry> live = new HashMap<>();
+    private final Map<String, Integer> sourceIds = new HashMap<>();
+    private final List<String> sources = new ArrayList<>();
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final Object snapshotLock = new Object();
+
+    private FileChannel sourcesChannel;
+    private MappedByteBuffer active;
+    private long activeBase;
+    private int activePosition;
+    private long appended;
+    private long appendedSinceSnapshot;
+
+    public TemperatureSegmentLog(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentCapacity = (int) Math.min(segmentSize / RECORD_SIZE, Integer.MAX_VALUE / RECORD_SIZE);
+        if (segmentCapacity < 1) {
+            throw new IllegalArgumentException("Segment musi pomieścić co najmniej jeden rekord (" + RECORD_SIZE + " B)");
+        }
+    }
+
+    /**
+     * Odtwarza indeks ze snapshotu i segmentów oraz przygotowuje segment do dopisywania.
+     */
+    public synchronized void open() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        loadSources();
+        long snapshotSequence = loadSnapshot();
+        int fromSnapshot = live.size();
+        long replayed = replaySegments(snapshotSequence);
+        log.info("Dziennik odczytów {}: {} odczytów ({} ze snapshotu, {} rekordów dziennika) w {} ms",
+                directory, live.size(), fromSnapshot, replayed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public synchronized void append(List<TemperatureReading> removed, List<TemperatureReading> added, boolean force) throws IOException {
+        append(List.of(new TemperatureReadingsChangedEvent(removed, added)), force);
+    }
+
+    /**
+     * Dopisuje zmiany jednej transakcji bazy, w kolejności zdarzeń, jako jedną transakcję dziennika.
+     */
+    public synchronized void append(List<TemperatureReadingsChangedEvent> changes, boolean force) throws IOException {
+        // Wpisy przed pierwszym zapisem - nowe źródło trafia do słownika, zanim powstanie jakikolwiek rekord
+        long first = activeBase + activePosition;
+        List<LogRecord> records = new ArrayList<>();
+        for (TemperatureReadingsChangedEvent change : changes) {
+            for (TemperatureReading reading : change.getRemoved()) {
+                records.add(new LogRecord(first + records.size(), TOMBSTONE, idOnly(reading.getId())));
+            }
+            for (TemperatureReading reading : change.getAdded()) {
+                records.add(new LogRecord(first + records.size(), PUT, toEntry(reading)));
+            }
+        }
+
+        byte flags = records.size() > 1 ? IN_BATCH : 0;
+        for (LogRecord logRecord : records) {
+            write(logRecord.getType(), flags, logRecord.getEntry());
+        }
+        if (records.size() > 1) {
+            write(COMMIT, (byte) 0, idOnly(first));
+        }
+        if (force) {
+            active.force();
+        }
+
+        records.forEach(logRecord -> apply(logRecord.getType(), logRecord.getEntry()));
+    }
+
+    /**
+     * Zapisuje snapshot indeksu, jeśli od poprzedniego coś dopisano. Dopisywanie czeka tylko na skopiowanie indeksu.
+     */
+    public boolean snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            List<Entry> entries;
+            long sequence;
+            synchronized (this) {
+                if (appendedSinceSnapshot == 0) {
+                    return false;
+                }
+                entries = new ArrayList<>(live.values());
+                sequence = activeBase + activePosition;
+            }
+
+            Path target = directory.resolve(snapshotName(sequence));
+            Path temporary = directory.resolve(snapshotName(sequence) + ".tmp");
+            writeSnapshot(temporary, entries, sequence);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            deleteSnapshotsExcept(target);
+            int removedSegments = deleteSegmentsBefore(sequence);
+            synchronized (this) {
+                appendedSinceSnapshot = activeBase + activePosition - sequence;
+            }
+            log.info("Snapshot dziennika: {} odczytów, sekwencja {}, usunięte segmenty: {}", entries.size(), sequence, removedSegments);
+            return true;
+        }
+    }
+
+    public synchronized void forEachLive(Consumer<TemperatureReading> action) {
+        live.values().forEach(entry -> action.accept(toReading(entry)));
+    }
+
+    public synchronized int liveCount() {
+        return live.size();
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    public synchronized long appended() {
+        return appended;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active != null) {
+            active.force();
+            active = null;
+        }
+        if (sourcesChannel != null) {
+            sourcesChannel.close();
+            sourcesChannel = null;
+        }
+    }
+
+    private void write(byte type, byte flags, Entry entry) throws IOException {
+        if (activePosition == segmentCapacity) {
+            active.force();
+            openSegment(activeBase + segmentCapacity);
+        }
+        encode(record, 0, type, flags, entry);
+        active.put(activePosition * RECORD_SIZE, record, 0, RECORD_SIZE);
+        activePosition++;
+        appended++;
+        appendedSinceSnapshot++;
+    }
+
+    private void apply(byte type, Entry entry) {
+        if (type == TOMBSTONE) {
+            live.remove(entry.getId());
+        } else {
+            live.put(entry.getId(), entry);
+        }
+    }
+
+    // --- Segmenty ---
+
+    private long replaySegments(long from) throws IOException {
+        for (Path file : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            long base = sequenceOf(file, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            if (base + segmentCapacity <= from) {
+                // Pozostałość po snapshocie przerwanym przed usunięciem segmentów
+                Files.delete(file);
+            } else {
+                segments.put(base, file);
+            }
+        }
+        if (segments.isEmpty()) {
+            openSegment(from);
+            return 0;
+        }
+
+        long replayed = 0;
+        List<LogRecord> pending = new ArrayList<>();
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            long base = segment.getKey();
+            boolean last = base == segments.lastKey();
+            MappedByteBuffer buffer = map(segment.getValue());
+            int position = (int) Math.max(0, from - base);
+            int end = scan(buffer, segment.getValue(), base, position, last, pending);
+            replayed += end - position;
+            if (last) {
+                clearFrom(buffer, end);
+                active = buffer;
+                activeBase = base;
+                // Zapisy objęte snapshotem, których strony nie trafiły na dysk, nie mogą dostać numerów ponownie
+                activePosition = Math.max(end, position);
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.warn("Odrzucono {} rekordów niezakończonej transakcji na końcu dziennika", pending.size());
+        }
+        return replayed;
+    }
+
+    private int scan(ByteBuffer buffer, Path file, long base, int from, boolean last, List<LogRecord> pending) {
+        int position = from;
+        for (; position < segmentCapacity; position++) {
+            int offset = position * RECORD_SIZE;
+            byte type = buffer.get(offset);
+            if (type == 0) {
+                break;
+            }
+            if ((type != PUT && type != TOMBSTONE && type != COMMIT) || buffer.getInt(offset + CRC_OFFSET) != crc(buffer, offset)) {
+                if (last) {
+                    log.warn("Niedokończony rekord na końcu dziennika ({}, pozycja {}) - odrzucony", file.getFileName(), position);
+                    break;
+                }
+                log.error("Uszkodzony rekord w {} na pozycji {} - pominięty", file.getFileName(), position);
+                continue;
+            }
+            Entry entry = decode(buffer, offset);
+            if (type == COMMIT) {
+                commit(pending, entry.getId());
+            } else if (buffer.get(offset + FLAGS_OFFSET) == IN_BATCH) {
+                pending.add(new LogRecord(base + position, type, entry));
+            } else {
+                apply(type, entry);
+            }
+        }
+        return position;
+    }
+
+    // Rekordy sprzed pierwszego rekordu transakcji to pozostałość po nieudanym zapisie - nie wracają do indeksu
+    private void commit(List<LogRecord> pending, long first) {
+        int discarded = 0;
+        for (LogRecord logRecord : pending) {
+            if (logRecord.getSequence() >= first) {
+                apply(logRecord.getType(), logRecord.getEntry());
+            } else {
+                discarded++;
+            }
+        }
+        if (discarded > 0) {
+            log.warn("Odrzucono {} rekordów przerwanej transakcji przed sekwencją {}", discarded, first);
+        }
+        pending.clear();
+    }
+
+    // Po odrzuconym rekordzie mogą zostać starsze fragmenty zapisów - czyścimy je, żeby nie wróciły przy kolejnym starcie
+    private void clearFrom(ByteBuffer buffer, int position) {
+        byte[] empty = new byte[RECORD_SIZE];
+        for (int slot = position; slot < segmentCapacity; slot++) {
+            if (buffer.get(slot * RECORD_SIZE) != 0) {
+                buffer.put(slot * RECORD_SIZE, empty);
+            }
+        }
+    }
+
+    private void openSegment(long base) throws IOException {
+        Path file = directory.resolve(SEGMENT_PREFIX + String.format("%020d", base) + SEGMENT_SUFFIX);
+        active = map(file);
+        activeBase = base;
+        activePosition = 0;
+        segments.put(base, file);
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapowanie pozostaje ważne po zamknięciu kanału
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentCapacity * RECORD_SIZE);
+        }
+    }
+
+    private int deleteSegmentsBefore(long sequence) throws IOException {
+        List<Path> covered = new ArrayList<>();
+        synchronized (this) {
+            while (!segments.isEmpty() && segments.firstKey() != activeBase && segments.firstKey() + segmentCapacity <= sequence) {
+                covered.add(segments.pollFirstEntry().getValue());
+            }
+        }
+        for (Path file : covered) {
+            Files.deleteIfExists(file);
+        }
+        return covered.size();
+    }
+
+    // --- Snapshot ---
+
+    private long loadSnapshot() throws IOException {
+        for (Path file : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX + ".tmp")) {
+            Files.delete(file);
+        }
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        Path newest = snapshots.get(snapshots.size() - 1);
+        deleteSnapshotsExcept(newest);
+
+        try (FileChannel channel = FileChannel.open(newest, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < SNAPSHOT_HEADER_SIZE + Integer.BYTES
+                    || buffer.getLong(0) != SNAPSHOT_MAGIC || buffer.getInt(8) != SNAPSHOT_VERSION) {
+                throw new IOException("Nieprawidłowy nagłówek snapshotu " + newest);
+            }
+            long sequence = buffer.getLong(12);
+            long count = buffer.getLong(20);
+            if (buffer.capacity() != SNAPSHOT_HEADER_SIZE + count * RECORD_SIZE + Integer.BYTES) {
+                throw new IOException("Niepełny snapshot " + newest);
+            }
+            int end = buffer.capacity() - Integer.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, end));
+            if (buffer.getInt(end) != (int) crc.getValue()) {
+                // Starsze segmenty zostały już usunięte - start z częścią danych byłby gorszy niż błąd
+                throw new IOException("Uszkodzony snapshot " + newest + " - błędna suma kontrolna");
+            }
+            for (int offset = SNAPSHOT_HEADER_SIZE; offset < end; offset += RECORD_SIZE) {
+                apply(PUT, decode(buffer, offset));
+            }
+            return sequence;
+        }
+    }
+
+    private void writeSnapshot(Path file, List<Entry> entries, long sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_RECORDS * RECORD_SIZE);
+            buffer.putLong(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(sequence).putLong(entries.size()).putInt(RECORD_SIZE);
+            for (Entry entry : entries) {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    flush(channel, buffer, crc);
+                }
+                encode(buffer, buffer.position(), PUT, (byte) 0, entry);
+                buffer.position(buffer.position() + RECORD_SIZE);
+            }
+            flush(channel, buffer, crc);
+            buffer.putInt((int) crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void deleteSnapshotsExcept(Path keep) throws IOException {
+        for (Path file : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (!file.equals(keep)) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static String snapshotName(long sequence) {
+        return SNAPSHOT_PREFIX + String.format("%020d", sequence) + SNAPSHOT_SUFFIX;
+    }
+
+    // --- Słownik źródeł ---
+
+    private void loadSources() throws IOException {
+        Path file = directory.resolve(SOURCES_FILE);
+        ByteBuffer buffer = ByteBuffer.wrap(Files.exists(file) ? Files.readAllBytes(file) : new byte[0]);
+
+        // Wpis: długość nazwy, nazwa w UTF-8, CRC32 obu; niepełny wpis na końcu to przerwane dopisanie
+        int valid = 0;
+        while (buffer.limit() - valid >= Short.BYTES) {
+            int length = buffer.getShort(valid);
+            if (length < 0 || buffer.limit() < valid + Short.BYTES + length + Integer.BYTES) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(valid, Short.BYTES + length));
+            if (buffer.getInt(valid + Short.BYTES + length) != (int) crc.getValue()) {
+                break;
+            }
+            byte[] name = new byte[length];
+            buffer.get(valid + Short.BYTES, name);
+            registerSource(new String(name, StandardCharsets.UTF_8));
+            valid += Short.BYTES + length + Integer.BYTES;
+        }
+
+        sourcesChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (valid < buffer.limit()) {
+            log.warn("Odrzucono niedokończony wpis na końcu słownika źródeł ({} B)", buffer.limit() - valid);
+            sourcesChannel.truncate(valid);
+        }
+        sourcesChannel.position(valid);
+    }
+
+    private int sourceId(String source) throws IOException {
+        if (source == null) {
+            return 0;
+        }
+        Integer id = sourceIds.get(source);
+        if (id != null) {
+            return id;
+        }
+        byte[] name = source.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(Short.BYTES + name.length + Integer.BYTES);
+        entry.putShort((short) name.length).put(name);
+        CRC32 crc = new CRC32();
+        crc.update(entry.array(), 0, entry.position());
+        entry.putInt((int) crc.getValue()).flip();
+        while (entry.hasRemaining()) {
+            sourcesChannel.write(entry);
+        }
+        // Nowe źródło jest rzadkie, a rekordy bez niego byłyby nieczytelne - zawsze na dysk przed rekordem
+        sourcesChannel.force(false);
+        return registerSource(source);
+    }
+
+    private int registerSource(String source) {
+        sources.add(source);
+        sourceIds.put(source, sources.size());
+        return sources.size();
+    }
+
+    // --- Format rekordu ---
+
+    private Entry toEntry(TemperatureReading reading) throws IOException {
+        return new Entry(
+                reading.getId(),
+                (int) reading.getDate().toEpochDay(),
+                reading.getHour().toSecondOfDay(),
+                reading.getDayOfWeek() != null ? reading.getDayOfWeek() : reading.getDate().getDayOfWeek().getValue(),
+                reading.getTemperature(),
+                sourceId(reading.getSource()),
+                micros(reading.getCreatedAt()),
+                micros(reading.getUpdatedAt()));
+    }
+
+    private static Entry idOnly(long id) {
+        return new Entry(id, 0, 0, 0, 0.0, 0, NO_TIMESTAMP, NO_TIMESTAMP);
+    }
+
+    private TemperatureReading toReading(Entry entry) {
+        return TemperatureReading.builder()
+                .id(entry.getId())
+                .date(LocalDate.ofEpochDay(entry.getEpochDay()))
+                .dayOfWeek(entry.getDayOfWeek())
+                .hour(LocalTime.ofSecondOfDay(entry.getSecondOfDay()))
+                .temperature(entry.getTemperature())
+                .source(entry.getSourceId() == 0 ? null : sources.get(entry.getSourceId() - 1))
+                .createdAt(timestamp(entry.getCreatedMicros()))
+                .updatedAt(timestamp(entry.getUpdatedMicros()))
+                .build();
+    }
+
+    private static void encode(ByteBuffer buffer, int offset, byte type, byte flags, Entry entry) {
+        buffer.put(offset, type);
+        buffer.put(offset + 1, (byte) entry.getDayOfWeek());
+        buffer.put(offset + FLAGS_OFFSET, flags);
+        buffer.put(offset + 3, (byte) 0);
+        buffer.putInt(offset + 4, entry.getSourceId());
+        buffer.putLong(offset + 8, entry.getId());
+        buffer.putInt(offset + 16, entry.getEpochDay());
+        buffer.putInt(offset + 20, entry.getSecondOfDay());
+        buffer.putDouble(offset + 24, entry.getTemperature());
+        buffer.putLong(offset + 32, entry.getCreatedMicros());
+        buffer.putLong(offset + 40, entry.getUpdatedMicros());
+        buffer.putInt(offset + CRC_OFFSET, crc(buffer, offset));
+    }
+
+    private static Entry decode(ByteBuffer buffer, int offset) {
+        return new Entry(
+                buffer.getLong(offset + 8),
+                buffer.getInt(offset + 16),
+                buffer.getInt(offset + 20),
+                buffer.get(offset + 1),
+                buffer.getDouble(offset + 24),
+                buffer.getInt(offset + 4),
+                buffer.getLong(offset + 32),
+                buffer.getLong(offset + 40));
+    }
+
+    private static int crc(ByteBuffer buffer, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    static long micros(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return NO_TIMESTAMP;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    static LocalDateTime timestamp(long micros) {
+        if (micros == NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    // --- Pliki ---
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(suffix);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequenceOf(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    /**
+     * Aktualna wersja odczytu w indeksie - same prymitywy, bez obiektów dat i napisów.
+     */
+    @Value
+    static class Entry {
+        long id;
+        int epochDay;
+        int secondOfDay;
+        int dayOfWeek;
+        double temperature;
+        int sourceId;
+        long createdMicros;
+        long updatedMicros;
+    }
+
+    /**
+     * Rekord z numerem sekwencyjnym - przygotowany do zapisu albo czekający przy odtwarzaniu na swój COMMIT.
+     */
+    @Value
+    static class LogRecord {
+        long sequence;
+        byte type;
+        Entry entry;
+    }
+}
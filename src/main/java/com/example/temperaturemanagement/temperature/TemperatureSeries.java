@@ -0,0 +1,24 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureSeries {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private TemperatureSeriesMode mode;
+    private int maxPoints;
+    // Liczba odczytów w zakresie, z których powstały punkty
+    private long totalReadings;
+    private List<TemperatureSeriesPoint> points;
+}
@@ -0,0 +1,30 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sposób redukcji odczytów w /range/series: średnia, minimum i maksimum w równych przedziałach czasu
+ * albo Largest-Triangle-Three-Buckets - wybór rzeczywistych odczytów zachowujących kształt wykresu.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TemperatureSeriesMode {
+
+    BUCKET("bucket", 1),
+    LTTB("lttb", 3);
+
+    private final String key;
+    // LTTB zawsze zachowuje pierwszy i ostatni odczyt, więc potrzebuje co najmniej jednego przedziału między nimi
+    private final int minPoints;
+
+    public static TemperatureSeriesMode from(String value) {
+        for (TemperatureSeriesMode mode : values()) {
+            if (mode.key.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new InvalidTemperatureDataException("Nieobsługiwany tryb serii: " + value);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TemperatureSeriesPoint {
+
+    // Początek przedziału (bucket) albo czas wybranego odczytu (lttb)
+    private LocalDateTime timestamp;
+    // Średnia w przedziale (bucket) albo temperatura odczytu (lttb)
+    private Double temperature;
+    // Tylko w trybie bucket
+    private Double minTemperature;
+    private Double maxTemperature;
+    private Long count;
+}
@@ -0,0 +1,354 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Seria do wykresu z co najwyżej maxPoints punktów, liczona w trakcie czytania kursora z bazy.
+ * Zapytanie zwraca tylko datę, godzinę i temperaturę, a w pamięci są tylko przedziały:
+ * maxPoints akumulatorów w trybie bucket albo dwa sąsiednie przedziały odczytów w trybie LTTB.
+ * Oś czasu to sekundy od początku epoki, liczone dla daty i godziny odczytu bez strefy czasowej.
+ *
+ * <p>Agregaty retencji ({@link TemperatureRollup}) z zakresu są dołączane do strumienia odczytów w kolejności
+ * czasu: agregat godzinowy leży na początku swojej godziny, dzienny na początku dnia. W trybie bucket wnosi
+ * swoją liczbę, sumę i skrajne wartości, w trybie LTTB jest jednym punktem ze średnią.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class TemperatureSeriesService {
+
+    private final TemperatureReadingRepository temperatureRepository;
+    private final TemperatureRollupRepository rollupRepository;
+    private final TemperatureProperties properties;
+
+    public TemperatureSeries getSeries(LocalDate startDate, LocalDate endDate, TemperatureSeriesMode mode,
+                                       Integer maxPoints) {
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidTemperatureDataException("Data początkowa nie może być późniejsza niż data końcowa");
+        }
+        int points = resolveMaxPoints(maxPoints, mode);
+        log.info("Seria {} ({} punktów) dla zakresu dat: {} - {}", mode, points, startDate, endDate);
+
+        Sampler sampler = switch (mode) {
+            case BUCKET -> new BucketSampler(epochSecond(startDate.atStartOfDay()),
+                    epochSecond(endDate.plusDays(1).atStartOfDay()), points);
+            case LTTB -> new LttbSampler(points, temperatureRepository.countByDateBetween(startDate, endDate)
+                    + rollupRepository.countByDateBetween(startDate, endDate));
+        };
+        try (Stream<Object[]> rows = temperatureRepository.streamSeriesByDateBetween(startDate, endDate);
+             Stream<TemperatureRollup> rollups = rollupRepository.streamByDateBetween(startDate, endDate)) {
+            merge(rows.iterator(), rollups.iterator(), sampler);
+        }
+
+        return TemperatureSeries.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .mode(mode)
+                .maxPoints(points)
+                .totalReadings(sampler.accepted())
+                .points(sampler.finish())
+                .build();
+    }
+
+    // Złączenie dwóch strumieni uporządkowanych po (data, godzina)
+    private static void merge(Iterator<Object[]> rows, Iterator<TemperatureRollup> rollups, Sampler sampler) {
+        Object[] row = rows.hasNext() ? rows.next() : null;
+        TemperatureRollup rollup = rollups.hasNext() ? rollups.next() : null;
+        while (row != null || rollup != null) {
+            long rowSecond = row == null ? Long.MAX_VALUE : epochSecond(LocalDateTime.of((LocalDate) row[0], (LocalTime) row[1]));
+            long rollupSecond = rollup == null ? Long.MAX_VALUE : epochSecond(LocalDateTime.of(rollup.getDate(), rollup.getHour()));
+            if (rowSecond <= rollupSecond) {
+                sampler.accept(rowSecond, (Double) row[2]);
+                row = rows.hasNext() ? rows.next() : null;
+            } else {
+                sampler.accept(rollupSecond, rollup.getReadingCount(), rollup.getTemperatureSum(),
+                        rollup.getMinTemperature(), rollup.getMaxTemperature());
+                rollup = rollups.hasNext() ? rollups.next() : null;
+            }
+        }
+    }
+
+    private int resolveMaxPoints(Integer maxPoints, TemperatureSeriesMode mode) {
+        int points = maxPoints == null ? properties.getSeries().getDefaultPoints() : maxPoints;
+        if (points < mode.getMinPoints()) {
+            throw new InvalidTemperatureDataException(
+                    "Parametr maxPoints dla trybu " + mode.getKey() + " musi wynosić co najmniej " + mode.getMinPoints());
+        }
+        return Math.min(points, properties.getSeries().getMaxPoints());
+    }
+
+    private static long epochSecond(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime timestamp(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    interface Sampler {
+
+        void accept(long epochSecond, double temperature);
+
+        // Agregat wielu odczytów w jednym punkcie czasu
+        void accept(long epochSecond, long count, double sum, double min, double max);
+
+        // Liczba odczytów, także tych zawartych w agregatach
+        long accepted();
+
+        List<TemperatureSeriesPoint> finish();
+    }
+
+    /**
+     * Zakres dzielony na maxPoints przedziałów równej długości; puste przedziały nie trafiają do wyniku.
+     * Kolejność odczytów nie ma znaczenia.
+     */
+    static final class BucketSampler implements Sampler {
+
+        private final long start;
+        private final long width;
+        private final long[] counts;
+        private final double[] sums;
+        private final double[] mins;
+        private final double[] maxs;
+        private long accepted;
+
+        BucketSampler(long start, long end, int buckets) {
+            this.start = start;
+            // Szerokość zaokrąglona w górę do pełnej minuty - czytelne granice przedziałów na osi wykresu
+            long minutes = (end - start + 60L * buckets - 1) / (60L * buckets);
+            this.width = Math.max(1, minutes) * 60;
+            this.counts = new long[buckets];
+            this.sums = new double[buckets];
+            this.mins = new double[buckets];
+            this.maxs = new double[buckets];
+        }
+
+        @Override
+        public void accept(long epochSecond, double temperature) {
+            int bucket = (int) Math.min(Math.max(0, (epochSecond - start) / width), counts.length - 1);
+            if (counts[bucket]++ == 0) {
+                mins[bucket] = temperature;
+                maxs[bucket] = temperature;
+            } else {
+                mins[bucket] = Math.min(mins[bucket], temperature);
+                maxs[bucket] = Math.max(maxs[bucket], temperature);
+            }
+            sums[bucket] += temperature;
+            accepted++;
+        }
+
+        @Override
+        public void accept(long epochSecond, long count, double sum, double min, double max) {
+            int bucket = (int) Math.min(Math.max(0, (epochSecond - start) / width), counts.length - 1);
+            if (counts[bucket] == 0) {
+                mins[bucket] = min;
+                maxs[bucket] = max;
+            } else {
+                mins[bucket] = Math.min(mins[bucket], min);
+                maxs[bucket] = Math.max(maxs[bucket], max);
+            }
+            counts[bucket] += count;
+            sums[bucket] += sum;
+            accepted += count;
+        }
+
+        @Override
+        public long accepted() {
+            return accepted;
+        }
+
+        @Override
+        public List<TemperatureSeriesPoint> finish() {
+            List<TemperatureSeriesPoint> points = new ArrayList<>();
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                if (counts[bucket] == 0) continue;
+                points.add(TemperatureSeriesPoint.builder()
+                        .timestamp(timestamp(start + bucket * width))
+                        .temperature(sums[bucket] / counts[bucket])
+                        .minTemperature(mins[bucket])
+                        .maxTemperature(maxs[bucket])
+                        .count(counts[bucket])
+                        .build());
+            }
+            return points;
+        }
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets dla odczytów uporządkowanych w czasie. Pierwszy i ostatni odczyt zostają,
+     * pozostałe dzielone są według pozycji na maxPoints - 2 przedziałów, a z każdego wybierany jest odczyt
+     * tworzący największy trójkąt z punktem wybranym wcześniej i średnią następnego przedziału.
+     * Wybór z przedziału następuje, gdy następny przedział jest kompletny - w pamięci są najwyżej dwa przedziały.
+     *
+     * <p>Podział opiera się na liczbie punktów (odczytów i agregatów) policzonej przed odczytem strumienia.
+     * Ostatni odebrany punkt zawsze jest traktowany jako końcowy, a nadmiar względem tej liczby trafia
+     * do ostatniego przedziału, więc zapis współbieżny z zapytaniem nie psuje wyniku. Liczba mniejsza niż maxPoints
+     * jest podnoszona do maxPoints - każdy odczyt ma wtedy własny przedział i wychodzi bez zmian, a wynik
+     * nadal nie przekracza maxPoints, nawet gdy między liczeniem a odczytem strumienia przybędą wiersze.
+     */
+    static final class LttbSampler implements Sampler {
+
+        private final int maxPoints;
+        private final long expected;
+        private final List<TemperatureSeriesPoint> points = new ArrayList<>();
+        private long received;
+        private long accepted;
+
+        // Ostatni odebrany odczyt - do przedziału trafia dopiero, gdy wiadomo, że nie jest końcowym
+        private boolean held;
+        private long heldSecond;
+        private double heldTemperature;
+
+        // Ostatnio wybrany punkt (wierzchołek A trójkąta)
+        private double anchorSecond;
+        private double anchorTemperature;
+
+        // Przedział czekający na wybór i przedział wypełniany
+        private Bucket pending = new Bucket();
+        private Bucket filling = new Bucket();
+        private long fillingIndex = -1;
+
+        LttbSampler(int maxPoints, long expected) {
+            this.maxPoints = maxPoints;
+            this.expected = Math.max(expected, maxPoints);
+        }
+
+        @Override
+        public void accept(long epochSecond, double temperature) {
+            accepted++;
+            receive(epochSecond, temperature);
+        }
+
+        @Override
+        public void accept(long epochSecond, long count, double sum, double min, double max) {
+            accepted += count;
+            receive(epochSecond, sum / count);
+        }
+
+        private void receive(long epochSecond, double temperature) {
+            long index = received++;
+            if (index == 0) {
+                emit(epochSecond, temperature);
+                return;
+            }
+            if (held) {
+                add(index - 1, heldSecond, heldTemperature);
+            }
+            held = true;
+            heldSecond = epochSecond;
+            heldTemperature = temperature;
+        }
+
+        @Override
+        public long accepted() {
+            return accepted;
+        }
+
+        @Override
+        public List<TemperatureSeriesPoint> finish() {
+            if (!held) {
+                return points;
+            }
+            if (pending.size > 0) {
+                select(pending, filling.averageSecond(), filling.averageTemperature());
+            }
+            if (filling.size > 0) {
+                select(filling, heldSecond, heldTemperature);
+            }
+            emit(heldSecond, heldTemperature);
+            held = false;
+            return points;
+        }
+
+        private void add(long index, long epochSecond, double temperature) {
+            long bucket = Math.min((index - 1) * (maxPoints - 2) / (expected - 2), maxPoints - 3);
+            if (bucket != fillingIndex) {
+                if (pending.size > 0) {
+                    select(pending, filling.averageSecond(), filling.averageTemperature());
+                }
+                Bucket completed = filling;
+                filling = pending;
+                filling.clear();
+                pending = completed;
+                fillingIndex = bucket;
+            }
+            filling.add(epochSecond, temperature);
+        }
+
+        private void select(Bucket bucket, double nextSecond, double nextTemperature) {
+            int best = 0;
+            double bestArea = -1;
+            for (int i = 0; i < bucket.size; i++) {
+                // Podwojone pole trójkąta (A, punkt, średnia następnego przedziału) - stały czynnik nie zmienia wyboru
+                double area = Math.abs((anchorSecond - nextSecond) * (bucket.temperatures[i] - anchorTemperature)
+                        - (anchorSecond - bucket.seconds[i]) * (nextTemperature - anchorTemperature));
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = i;
+                }
+            }
+            emit(bucket.seconds[best], bucket.temperatures[best]);
+            bucket.clear();
+        }
+
+        private void emit(long epochSecond, double temperature) {
+            anchorSecond = epochSecond;
+            anchorTemperature = temperature;
+            points.add(TemperatureSeriesPoint.builder()
+                    .timestamp(timestamp(epochSecond))
+                    .temperature(temperature)
+                    .build());
+        }
+
+        private static final class Bucket {
+
+            private long[] seconds = new long[16];
+            private double[] temperatures = new double[16];
+            private int size;
+            private double secondSum;
+            private double temperatureSum;
+
+            void add(long epochSecond, double temperature) {
+                if (size == seconds.length) {
+                    seconds = Arrays.copyOf(seconds, size * 2);
+                    temperatures = Arrays.copyOf(temperatures, size * 2);
+                }
+                seconds[size] = epochSecond;
+                temperatures[size] = temperature;
+                size++;
+                secondSum += epochSecond;
+                temperatureSum += temperature;
+            }
+
+            double averageSecond() {
+                return secondSum / size;
+            }
+
+            double averageTemperature() {
+                return temperatureSum / size;
+            }
+
+            void clear() {
+                size = 0;
+                secondSum = 0;
+                temperatureSum = 0;
+            }
+        }
+    }
+}
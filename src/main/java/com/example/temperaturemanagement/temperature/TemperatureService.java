@@ -1,46 +1,182 @@
 package com.example.temperaturemanagement.temperature;
 
+import com.example.temperaturemanagement.config.TemperatureProperties;
 import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
 import com.example.temperaturemanagement.exception.TemperatureNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "temperature.service", description = "Czas wywołań metod TemperatureService")
 public class TemperatureService {
 
+    private static final String CSV_SOURCE = "CSV";
+    private static final int MAX_SAMPLE_ERRORS = 10;
+
     private final TemperatureReadingRepository temperatureRepository;
+    private final TemperatureRollupRepository rollupRepository;
+    private final TemperatureDailySummaryRepository summaryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final TemperatureProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TemperatureStatisticsAggregate statisticsAggregate;
+    private final TemperatureDateCache dateCache;
+    private final TemperatureColumnStore columnStore;
+    private final TemperatureLatestBuffer latestBuffer;
+    private final TemperatureImportMetrics importMetrics;
 
     public TemperatureReading createReading(TemperatureCreateRequest request) {
         log.info("Tworzenie nowego odczytu temperatury dla daty: {}", request.getDate());
 
-        TemperatureReading reading = TemperatureReading.builder()
+        TemperatureReading reading = toReading(request);
+        TemperatureReading saved = temperatureRepository.save(reading);
+        eventPublisher.publishEvent(TemperatureReadingsChangedEvent.created(List.of(saved)));
+        log.info("Odczyt temperatury utworzony z ID: {}", saved.getId());
+        return saved;
+    }
+
+    static TemperatureReading toReading(TemperatureCreateRequest request) {
+        return TemperatureReading.builder()
                 .date(request.getDate())
                 .dayOfWeek(request.getDayOfWeek())
                 .hour(request.getHour())
                 .temperature(request.getTemperature())
                 .source(request.getSource() != null ? request.getSource() : "MANUAL")
                 .build();
+    }
 
-        TemperatureReading saved = temperatureRepository.save(reading);
-        log.info("Odczyt temperatury utworzony z ID: {}", saved.getId());
+    /**
+     * Zapis paczki gotowych odczytów (np. dane przykładowe) jedną transakcją z batchowanymi INSERT-ami.
+     */
+    public List<TemperatureReading> importReadings(List<TemperatureReading> readings) {
+        List<TemperatureReading> saved = temperatureRepository.saveAll(readings);
+        eventPublisher.publishEvent(TemperatureReadingsChangedEvent.created(saved));
+        importMetrics.imported(TemperatureImportMetrics.BATCH, saved.size());
+        log.info("Zapisano {} odczytów", saved.size());
         return saved;
     }
 
-    @Transactional(readOnly = true)
-    public List<TemperatureReading> getAllReadings() {
-        log.info("Pobieranie wszystkich odczytów temperatury");
-        return temperatureRepository.findAll();
+    /**
+     * Strona odczytów uporządkowanych po (date, hour, id). Filtry są opcjonalne,
+     * a {@code cursor} to token {@link TemperaturePage#getNextCursor()} z poprzedniej strony.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TemperaturePage<TemperatureReadingView> getReadingsPage(String source, LocalDate startDate, LocalDate endDate,
+                                                                   String cursor, Integer limit) {
+        log.info("Pobieranie strony odczytów: source={}, zakres {} - {}", source, startDate, endDate);
+
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new InvalidTemperatureDataException("Data początkowa nie może być późniejsza niż data końcowa");
+        }
+
+        int pageSize = resolvePageSize(limit);
+
+        if (columnStore.isEnabled()) {
+            TemperatureCursor after = cursor == null || cursor.isBlank() ? null : TemperatureCursor.decode(cursor);
+            return toPage(columnStore.page(source, startDate, endDate, after, pageSize + 1), pageSize);
+        }
+
+        boolean singleDate = startDate != null && startDate.equals(endDate);
+        if (singleDate) {
+            List<TemperatureReadingView> cached = dateCache.getIfPresent(startDate);
+            if (cached != null) {
+                return pageFromDateCache(cached, source, cursor, pageSize);
+            }
+        }
+
+        // Pobieramy jeden wiersz więcej, żeby wiedzieć, czy istnieje następna strona
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        long cacheVersion = dateCache.version();
+
+        List<TemperatureReadingView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = temperatureRepository.findFirstPageViews(source, startDate, endDate, fetchLimit);
+            // Pierwsza strona daty bez filtra źródła, która zmieściła się w limicie, to cała data
+            if (singleDate && source == null && rows.size() <= pageSize) {
+                dateCache.putIfUnchanged(startDate, rows, cacheVersion);
+            }
+        } else {
+            TemperatureCursor after = TemperatureCursor.decode(cursor);
+            rows = temperatureRepository.findPageAfterViews(source, startDate, endDate,
+                    after.getDate(), after.getHour(), after.getId(), fetchLimit);
+        }
+
+        return toPage(rows, pageSize);
+    }
+
+    // Strona jednej daty wycinana z listy w cache, z tym samym porządkiem i kursorem co zapytanie keyset
+    private TemperaturePage<TemperatureReadingView> pageFromDateCache(List<TemperatureReadingView> readings, String source,
+                                                                       String cursor, int pageSize) {
+        TemperatureCursor after = cursor == null || cursor.isBlank() ? null : TemperatureCursor.decode(cursor);
+
+        List<TemperatureReadingView> rows = new ArrayList<>(pageSize + 1);
+        for (TemperatureReadingView reading : readings) {
+            if (source != null && !source.equals(reading.getSource())) continue;
+            if (after != null && !isAfter(reading, after)) continue;
+            rows.add(reading);
+            if (rows.size() > pageSize) break;
+        }
+        return toPage(rows, pageSize);
+    }
+
+    private static boolean isAfter(TemperatureReadingView reading, TemperatureCursor cursor) {
+        int byDate = reading.getDate().compareTo(cursor.getDate());
+        if (byDate != 0) return byDate > 0;
+        int byHour = reading.getHour().compareTo(cursor.getHour());
+        if (byHour != 0) return byHour > 0;
+        return reading.getId() > cursor.getId();
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return properties.getPagination().getDefaultLimit();
+        }
+        if (limit < 1) {
+            throw new InvalidTemperatureDataException("Parametr limit musi być większy od zera");
+        }
+        return Math.min(limit, properties.getPagination().getMaxLimit());
+    }
+
+    private static TemperaturePage<TemperatureReadingView> toPage(List<TemperatureReadingView> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<TemperatureReadingView> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? TemperatureCursor.after(items.get(items.size() - 1)).encode() : null;
+
+        return TemperaturePage.<TemperatureReadingView>builder()
+                .items(items)
+                .limit(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -54,6 +190,7 @@ public class TemperatureService {
         log.info("Aktualizacja odczytu temperatury o ID: {}", id);
 
         TemperatureReading reading = getReadingById(id);
+        TemperatureReading before = reading.toBuilder().build();
 
         if (request.getDate() != null) {
             reading.setDate(request.getDate());
@@ -71,28 +208,152 @@ public class TemperatureService {
             reading.setSource(request.getSource());
         }
 
-        TemperatureReading updated = temperatureRepository.save(reading);
+        // Flush uruchamia @PreUpdate, więc kopia w zdarzeniu ma już aktualne updatedAt
+        TemperatureReading updated = temperatureRepository.saveAndFlush(reading);
+        eventPublisher.publishEvent(TemperatureReadingsChangedEvent.updated(before, updated.toBuilder().build()));
         log.info("Odczyt temperatury zaktualizowany o ID: {}", id);
         return updated;
     }
 
     public void deleteReading(Long id) {
         log.info("Usuwanie odczytu temperatury o ID: {}", id);
-        TemperatureReading reading = getReadingById(id);
-        temperatureRepository.delete(reading);
+        // Jedno DELETE zamiast findById + delete - brak usuniętego wiersza oznacza brak odczytu
+        List<TemperatureReading> deleted = detached(temperatureRepository.deleteReturningById(id));
+        if (deleted.isEmpty()) {
+            throw new TemperatureNotFoundException("Nie znaleziono odczytu o ID: " + id);
+        }
+        eventPublisher.publishEvent(TemperatureReadingsChangedEvent.deleted(deleted.get(0)));
         log.info("Odczyt temperatury usunięty o ID: {}", id);
     }
 
-    @Transactional(readOnly = true)
-    public List<TemperatureReading> getReadingsByDate(LocalDate date) {
-        log.info("Pobieranie odczytów dla daty: {}", date);
-        return temperatureRepository.findByDateOrderByHour(date);
+    /**
+     * Usuwa odczyty z zakresu dat paczkami kolejnych dat po najwyżej {@code temperature.bulk.batch-size} wierszy
+     * (dzień nie jest dzielony). Każda paczka ma własną instrukcję i zdarzenie, więc pojedyncza instrukcja
+     * i zwracane przez nią wiersze nie rosną z szerokością zakresu. Wszystkie paczki są w jednej transakcji:
+     * błąd w dowolnej wycofuje całą operację, więc ponowienie (np. przesunięcia temperatury) jest bezpieczne.
+     */
+    public TemperatureBulkResult deleteReadings(LocalDate startDate, LocalDate endDate, String source) {
+        log.info("Usuwanie odczytów dla zakresu dat: {} - {}, źródło: {}", startDate, endDate, source);
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidTemperatureDataException("Data początkowa nie może być późniejsza niż data końcowa");
+        }
+        long start = System.nanoTime();
+
+        List<Object[]> plan = temperatureRepository.summarizeByDateBetween(startDate, endDate, source);
+        long deleted = applyInBatches(plan, (from, to) -> {
+            List<TemperatureReading> removed = detached(temperatureRepository.deleteReturningByDateBetween(from, to, source));
+            if (!removed.isEmpty()) {
+                eventPublisher.publishEvent(new TemperatureReadingsChangedEvent(removed, List.of()));
+            }
+            return removed.size();
+        });
+
+        log.info("Usunięto {} odczytów", deleted);
+        return TemperatureBulkResult.builder()
+                .affectedRows(deleted)
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
     }
 
-    @Transactional(readOnly = true)
-    public List<TemperatureReading> getReadingsByDateRange(LocalDate startDate, LocalDate endDate) {
-        log.info("Pobieranie odczytów dla zakresu dat: {} - {}", startDate, endDate);
-        return temperatureRepository.findByDateBetween(startDate, endDate);
+    /**
+     * Zmienia odczyty z zakresu dat paczkami jak {@link #deleteReadings}. Zakres temperatur po przesunięciu
+     * sprawdzany jest na podstawie MIN/MAX każdej daty, zanim zostanie wykonana jakakolwiek instrukcja UPDATE.
+     */
+    public TemperatureBulkResult updateReadings(LocalDate startDate, LocalDate endDate, String source,
+                                                TemperatureBulkUpdateRequest request) {
+        log.info("Aktualizacja odczytów dla zakresu dat: {} - {}, źródło: {}", startDate, endDate, source);
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidTemperatureDataException("Data początkowa nie może być późniejsza niż data końcowa");
+        }
+        int changes = (request.getTemperatureOffset() != null ? 1 : 0) + (request.getTemperature() != null ? 1 : 0)
+                + (request.getSource() != null ? 1 : 0);
+        if (changes != 1) {
+            throw new InvalidTemperatureDataException("Podaj dokładnie jedną zmianę: temperatureOffset, temperature albo source");
+        }
+        long start = System.nanoTime();
+
+        List<Object[]> plan = temperatureRepository.summarizeByDateBetween(startDate, endDate, source);
+        if (request.getTemperatureOffset() != null) {
+            double offset = request.getTemperatureOffset();
+            for (Object[] date : plan) {
+                double min = ((Number) date[2]).doubleValue() + offset;
+                double max = ((Number) date[3]).doubleValue() + offset;
+                if (min < -100.0 || max > 100.0) {
+                    throw new InvalidTemperatureDataException("Temperatura po zmianie musi być od -100 do 100°C (data: "
+                            + date[0] + ")");
+                }
+            }
+        }
+
+        long updated = applyInBatches(plan, (from, to) -> updateBatch(from, to, source, request));
+
+        log.info("Zaktualizowano {} odczytów", updated);
+        return TemperatureBulkResult.builder()
+                .affectedRows(updated)
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    private int updateBatch(LocalDate from, LocalDate to, String source, TemperatureBulkUpdateRequest request) {
+        // Dokładność kolumny TIMESTAMP - kopia w zdarzeniu ma taki sam updatedAt jak wiersz w bazie
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        // Jedno UPDATE na paczkę; nowe wersje odczytów wynikają z poprzednich i zmiany, więc nie są czytane ponownie
+        List<TemperatureReading> before;
+        UnaryOperator<TemperatureReading> change;
+        if (request.getTemperatureOffset() != null) {
+            double offset = request.getTemperatureOffset();
+            before = temperatureRepository.shiftTemperatureReturning(from, to, source, offset, now);
+            change = reading -> reading.toBuilder().temperature(reading.getTemperature() + offset).updatedAt(now).build();
+        } else if (request.getTemperature() != null) {
+            double temperature = request.getTemperature();
+            before = temperatureRepository.setTemperatureReturning(from, to, source, temperature, now);
+            change = reading -> reading.toBuilder().temperature(temperature).updatedAt(now).build();
+        } else {
+            String newSource = request.getSource();
+            before = temperatureRepository.setSourceReturning(from, to, source, newSource, now);
+            change = reading -> reading.toBuilder().source(newSource).updatedAt(now).build();
+        }
+        before = detached(before);
+
+        List<TemperatureReading> after = new ArrayList<>(before.size());
+        for (TemperatureReading reading : before) {
+            TemperatureReading updated = change.apply(reading);
+            // Odczyt zmieniony po sprawdzeniu planu (np. przez równoległy zapis) - wycofywana jest cała operacja
+            if (updated.getTemperature() < -100.0 || updated.getTemperature() > 100.0) {
+                throw new InvalidTemperatureDataException("Temperatura po zmianie musi być od -100 do 100°C (odczyt o ID: "
+                        + reading.getId() + ")");
+            }
+            after.add(updated);
+        }
+        if (!before.isEmpty()) {
+            eventPublisher.publishEvent(new TemperatureReadingsChangedEvent(before, after));
+        }
+        return before.size();
+    }
+
+    // Kolejne daty z planu (data, liczba odczytów, ...) łączone w paczki wykonywane w transakcji wywołującego
+    private long applyInBatches(List<Object[]> plan, BiFunction<LocalDate, LocalDate, Integer> batch) {
+        long batchSize = Math.max(1, properties.getBulk().getBatchSize());
+        long affected = 0;
+        int next = 0;
+        while (next < plan.size()) {
+            LocalDate from = (LocalDate) plan.get(next)[0];
+            LocalDate to = from;
+            long rows = ((Number) plan.get(next++)[1]).longValue();
+            while (next < plan.size() && rows + ((Number) plan.get(next)[1]).longValue() <= batchSize) {
+                to = (LocalDate) plan.get(next)[0];
+                rows += ((Number) plan.get(next++)[1]).longValue();
+            }
+            affected += batch.apply(from, to);
+        }
+        return affected;
+    }
+
+    // Wiersze zwrócone przez OLD TABLE opisują stan sprzed zmiany - nie mogą zostać w kontekście utrwalania
+    private List<TemperatureReading> detached(List<TemperatureReading> readings) {
+        readings.forEach(entityManager::detach);
+        return readings;
     }
 
     public List<TemperatureReading> importFromCsv(MultipartFile file) throws IOException {
@@ -113,28 +374,12 @@ public class TemperatureService {
 
         for (int i = 1; i < lines.length; i++) {
             String line = lines[i].trim();
-            if (line.isEmpty()) continue;
+            if (line.isEmpty() || !TemperatureCsvParser.hasRequiredColumns(line)) continue;
 
             try {
-                String[] parts = line.split(";");
-                if (parts.length < 4) continue;
-
-                LocalDate date = LocalDate.parse(parts[0].trim());
-                Integer dayOfWeek = Integer.parseInt(parts[1].trim());
-                LocalTime hour = LocalTime.parse(parts[2].trim());
-                Double temperature = Double.parseDouble(parts[3].trim());
-
-                TemperatureReading reading = TemperatureReading.builder()
-                        .date(date)
-                        .dayOfWeek(dayOfWeek)
-                        .hour(hour)
-                        .temperature(temperature)
-                        .source("CSV")
-                        .build();
-
-                readings.add(reading);
-
+                readings.add(TemperatureCsvParser.parseLine(line, CSV_SOURCE));
             } catch (Exception e) {
+                importMetrics.rejected(TemperatureImportMetrics.CSV, 1);
                 log.error("Błąd parsowania linii {} w CSV: {}", i + 1, e.getMessage());
                 throw new InvalidTemperatureDataException("Błąd w linii " + (i + 1) + ": " + e.getMessage());
             }
@@ -145,64 +390,413 @@ public class TemperatureService {
         }
 
         List<TemperatureReading> saved = temperatureRepository.saveAll(readings);
+        eventPublisher.publishEvent(TemperatureReadingsChangedEvent.created(saved));
+        importMetrics.imported(TemperatureImportMetrics.CSV, saved.size());
         log.info("Zaimportowano {} odczytów z pliku CSV", saved.size());
         return saved;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Import strumieniowy: plik czytany jest linia po linii z {@link MultipartFile#getInputStream()},
+     * a odczyty zatwierdzane w osobnych transakcjach po {@code temperature.csv-import.chunk-size} wierszy.
+     * Błędne linie są pomijane i liczone, zamiast przerywać cały import.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TemperatureImportSummary importFromCsvStreaming(MultipartFile file, TemperatureImportMode mode) throws IOException {
+        log.info("Strumieniowy import danych z pliku CSV: {}", file.getOriginalFilename());
+
+        if (file.isEmpty()) {
+            throw new InvalidTemperatureDataException("Plik CSV jest pusty");
+        }
+
+        long startNanos = System.nanoTime();
+        int chunkSize = Math.max(1, properties.getCsvImport().getChunkSize());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<TemperatureReading> chunk = new ArrayList<>(chunkSize);
+        List<String> sampleErrors = new ArrayList<>();
+        ImportCounts counts = new ImportCounts();
+        long rejected = 0;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            // Pierwsza linia to nagłówek
+            String line = reader.readLine();
+            long lineNumber = 1;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                try {
+                    chunk.add(TemperatureCsvParser.parseLine(line, CSV_SOURCE));
+                } catch (Exception e) {
+                    rejected++;
+                    importMetrics.rejected(TemperatureImportMetrics.CSV_STREAM, 1);
+                    if (sampleErrors.size() < MAX_SAMPLE_ERRORS) {
+                        sampleErrors.add("Błąd w linii " + lineNumber + ": " + e.getMessage());
+                    }
+                    continue;
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    saveChunk(transactionTemplate, chunk, TemperatureImportMetrics.CSV_STREAM, mode, counts);
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            saveChunk(transactionTemplate, chunk, TemperatureImportMetrics.CSV_STREAM, mode, counts);
+        }
+
+        if (counts.imported() == 0 && rejected == 0) {
+            throw new InvalidTemperatureDataException("Plik CSV nie zawiera danych");
+        }
+
+        long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        log.info("Zaimportowano strumieniowo {} odczytów z pliku CSV ({} nowych, {} zmienionych, {} bez zmian), "
+                + "odrzucono {} linii w {} ms", counts.imported(), counts.inserted, counts.updated, counts.unchanged,
+                rejected, durationMillis);
+
+        return TemperatureImportSummary.builder()
+                .fileName(file.getOriginalFilename())
+                .importedRows(counts.imported())
+                .insertedRows(counts.inserted)
+                .updatedRows(counts.updated)
+                .unchangedRows(counts.unchanged)
+                .rejectedRows(rejected)
+                .durationMillis(durationMillis)
+                .sampleErrors(sampleErrors)
+                .build();
+    }
+
+    /**
+     * Import pliku w formacie {@link TemperatureBinaryFormat} - bloki dekodowane po kolei ze strumienia,
+     * odczyty zatwierdzane paczkami jak w imporcie strumieniowym CSV. Źródło odczytu pochodzi z pliku.
+     * Blok z błędną sumą kontrolną jest pomijany, a jego odczyty liczone jako odrzucone.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TemperatureImportSummary importFromBinary(MultipartFile file, TemperatureImportMode mode) throws IOException {
+        log.info("Import danych z pliku binarnego: {}", file.getOriginalFilename());
+
+        if (file.isEmpty()) {
+            throw new InvalidTemperatureDataException("Plik binarny jest pusty");
+        }
+
+        long startNanos = System.nanoTime();
+        int chunkSize = Math.max(1, properties.getCsvImport().getChunkSize());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<TemperatureReading> block = new ArrayList<>(TemperatureBinaryFormat.BLOCK_READINGS);
+        List<TemperatureReading> chunk = new ArrayList<>(chunkSize);
+        List<String> sampleErrors = new ArrayList<>();
+        ImportCounts counts = new ImportCounts();
+        long rejected = 0;
+
+        try (InputStream inputStream = new BufferedInputStream(file.getInputStream())) {
+            TemperatureBinaryFormat.Reader reader = new TemperatureBinaryFormat.Reader(inputStream);
+            while (true) {
+                try {
+                    if (reader.readBlock(block) < 0) break;
+                } catch (TemperatureBinaryFormat.CorruptBlockException e) {
+                    rejected += e.getReadings();
+                    importMetrics.rejected(TemperatureImportMetrics.BINARY, e.getReadings());
+                    if (sampleErrors.size() < MAX_SAMPLE_ERRORS) {
+                        sampleErrors.add(e.getMessage());
+                    }
+                    continue;
+                }
+
+                for (TemperatureReading reading : block) {
+                    // 3 bity dnia tygodnia mieszczą też 0 - te same reguły co dla linii CSV
+                    try {
+                        TemperatureCsvParser.validate(reading.getDayOfWeek(), reading.getTemperature());
+                    } catch (IllegalArgumentException e) {
+                        rejected++;
+                        importMetrics.rejected(TemperatureImportMetrics.BINARY, 1);
+                        if (sampleErrors.size() < MAX_SAMPLE_ERRORS) {
+                            sampleErrors.add("Odczyt " + (counts.imported() + rejected + chunk.size()) + ": " + e.getMessage());
+                        }
+                        continue;
+                    }
+                    chunk.add(reading);
+                    if (chunk.size() >= chunkSize) {
+                        saveChunk(transactionTemplate, chunk, TemperatureImportMetrics.BINARY, mode, counts);
+                    }
+                }
+                block.clear();
+            }
+        } catch (IOException e) {
+            // Zatwierdzone wcześniej paczki zostają w bazie - jak przy przerwanym imporcie CSV
+            throw new InvalidTemperatureDataException("Nieprawidłowy plik binarny: " + e.getMessage());
+        }
+
+        if (!chunk.isEmpty()) {
+            saveChunk(transactionTemplate, chunk, TemperatureImportMetrics.BINARY, mode, counts);
+        }
+
+        long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        log.info("Zaimportowano {} odczytów z pliku binarnego ({} nowych, {} zmienionych, {} bez zmian), "
+                + "odrzucono {} w {} ms", counts.imported(), counts.inserted, counts.updated, counts.unchanged,
+                rejected, durationMillis);
+
+        return TemperatureImportSummary.builder()
+                .fileName(file.getOriginalFilename())
+                .importedRows(counts.imported())
+                .insertedRows(counts.inserted)
+                .updatedRows(counts.updated)
+                .unchangedRows(counts.unchanged)
+                .rejectedRows(rejected)
+                .durationMillis(durationMillis)
+                .sampleErrors(sampleErrors)
+                .build();
+    }
+
+    private void saveChunk(TransactionTemplate transactionTemplate, List<TemperatureReading> chunk, String metricsMode,
+                           TemperatureImportMode mode, ImportCounts counts) {
+        int size = chunk.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (mode == TemperatureImportMode.UPSERT) {
+                upsertChunk(chunk, counts);
+                return;
+            }
+            List<TemperatureReading> saved = temperatureRepository.saveAll(chunk);
+            eventPublisher.publishEvent(TemperatureReadingsChangedEvent.created(saved));
+            counts.inserted += saved.size();
+        });
+        importMetrics.imported(metricsMode, size);
+        // Przy open-in-view kontekst persystencji żyje do końca żądania - czyścimy go po każdej paczce
+        entityManager.clear();
+        chunk.clear();
+    }
+
+    /**
+     * Upsert paczki po kluczu naturalnym (date, hour, source): jedno zapytanie o istniejące odczyty paczki,
+     * potem batchowane INSERT-y nowych i UPDATE-y zmienionych. Odczyty identyczne z zapisanymi nie generują
+     * zapisu ani zdarzenia. Powtórzenie klucza w paczce nadpisuje wcześniejszą wartość.
+     */
+    private void upsertChunk(List<TemperatureReading> chunk, ImportCounts counts) {
+        Set<LocalDate> dates = new HashSet<>();
+        Set<LocalTime> hours = new HashSet<>();
+        for (TemperatureReading reading : chunk) {
+            dates.add(reading.getDate());
+            hours.add(reading.getHour());
+        }
+        Map<ReadingKey, TemperatureReading> current = new HashMap<>();
+        for (TemperatureReading existing : temperatureRepository.findByDateInAndHourIn(dates, hours)) {
+            current.put(ReadingKey.of(existing), existing);
+        }
+
+        List<TemperatureReading> inserted = new ArrayList<>();
+        Map<Long, TemperatureReading> before = new LinkedHashMap<>();
+        for (TemperatureReading reading : chunk) {
+            TemperatureReading target = current.putIfAbsent(ReadingKey.of(reading), reading);
+            if (target == null) {
+                inserted.add(reading);
+                counts.inserted++;
+            } else if (Objects.equals(target.getDayOfWeek(), reading.getDayOfWeek())
+                    && Double.compare(target.getTemperature(), reading.getTemperature()) == 0) {
+                counts.unchanged++;
+            } else {
+                if (target.getId() != null) {
+                    before.putIfAbsent(target.getId(), target.toBuilder().build());
+                }
+                target.setDayOfWeek(reading.getDayOfWeek());
+                target.setTemperature(reading.getTemperature());
+                counts.updated++;
+            }
+        }
+        if (inserted.isEmpty() && before.isEmpty()) {
+            return;
+        }
+
+        List<TemperatureReading> added = new ArrayList<>(temperatureRepository.saveAll(inserted));
+        // Flush uruchamia @PreUpdate, więc kopie w zdarzeniu mają już aktualne updatedAt
+        entityManager.flush();
+        for (Long id : before.keySet()) {
+            added.add(entityManager.find(TemperatureReading.class, id).toBuilder().build());
+        }
+        eventPublisher.publishEvent(new TemperatureReadingsChangedEvent(List.copyOf(before.values()), added));
+    }
+
+    private static final class ImportCounts {
+
+        private long inserted;
+        private long updated;
+        private long unchanged;
+
+        long imported() {
+            return inserted + updated + unchanged;
+        }
+    }
+
+    @Value
+    private static class ReadingKey {
+
+        LocalDate date;
+        LocalTime hour;
+        String source;
+
+        static ReadingKey of(TemperatureReading reading) {
+            return new ReadingKey(reading.getDate(), reading.getHour(), reading.getSource());
+        }
+    }
+
+    // Statystyki odpowiadane z pamięci - bez transakcji i bez zapytań do bazy
+    @Transactional(propagation = Propagation.SUPPORTS)
     public TemperatureStats getStatistics() {
         log.info("Pobieranie statystyk temperatury");
+        return statisticsAggregate.snapshot();
+    }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<LocalTime, Double> getAverageTemperatureByHour() {
+        log.info("Pobieranie średniej temperatury według godzin");
+        return statisticsAggregate.snapshot().getAverageByHour();
+    }
+
+    /**
+     * Przelicza statystyki bezpośrednio z bazy i porównuje je ze statystykami utrzymywanymi w pamięci.
+     */
+    @Transactional(readOnly = true)
+    public TemperatureStatsConsistency checkStatisticsConsistency() {
+        log.info("Sprawdzanie zgodności statystyk w pamięci z bazą danych");
+
+        TemperatureStats memory = statisticsAggregate.snapshot();
+        TemperatureStats database = computeStatisticsFromDatabase();
+        boolean consistent = TemperatureStatisticsAggregate.matches(memory, database);
+        if (!consistent) {
+            log.warn("Statystyki w pamięci różnią się od bazy danych: {} vs {}", memory, database);
+        }
+
+        return TemperatureStatsConsistency.builder()
+                .consistent(consistent)
+                .memory(memory)
+                .database(database)
+                .build();
+    }
+
+    private TemperatureStats computeStatisticsFromDatabase() {
         Object[] stats = temperatureRepository.getTemperatureStatistics();
         Long totalCount = temperatureRepository.count();
-        Map<LocalTime, Double> hourlyAverages = getAverageTemperatureByHour();
 
-        double min = 0.0;
-        double max = 0.0;
-        double avg = 0.0;
+        // Zapytanie zwracające jeden wiersz bywa opakowane w dodatkową tablicę
+        if (stats != null && stats.length == 1 && stats[0] instanceof Object[] row) {
+            stats = row;
+        }
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0.0;
 
         if (stats != null && stats.length == 3) {
             if (stats[0] instanceof Number) min = ((Number) stats[0]).doubleValue();
             if (stats[1] instanceof Number) max = ((Number) stats[1]).doubleValue();
-            if (stats[2] instanceof Number) avg = ((Number) stats[2]).doubleValue();
+            if (stats[2] instanceof Number) sum = ((Number) stats[2]).doubleValue() * totalCount;
+        }
+
+        // Sumy i liczby dla godzin i dni tygodnia - średnie surowych odczytów łączone z agregatami retencji
+        Map<LocalTime, double[]> hourSums = new TreeMap<>();
+        for (Object[] result : temperatureRepository.getAverageTemperatureByHour()) {
+            long count = ((Number) result[2]).longValue();
+            addTo(hourSums, (LocalTime) result[0], (Double) result[1] * count, count);
+        }
+        Map<Integer, double[]> dayOfWeekSums = new TreeMap<>();
+        for (Object[] result : temperatureRepository.getAverageTemperatureByDayOfWeek()) {
+            long count = ((Number) result[2]).longValue();
+            addTo(dayOfWeekSums, (Integer) result[0], (Double) result[1] * count, count);
+        }
+
+        for (Object[] rollup : rollupRepository.sumByLevelHourAndDayOfWeek()) {
+            long count = ((Number) rollup[3]).longValue();
+            double rollupSum = ((Number) rollup[4]).doubleValue();
+            totalCount += count;
+            sum += rollupSum;
+            min = Math.min(min, ((Number) rollup[5]).doubleValue());
+            max = Math.max(max, ((Number) rollup[6]).doubleValue());
+            if (rollup[0] == TemperatureRollupLevel.HOUR) {
+                addTo(hourSums, (LocalTime) rollup[1], rollupSum, count);
+            }
+            addTo(dayOfWeekSums, (Integer) rollup[2], rollupSum, count);
         }
 
         return TemperatureStats.builder()
-                .minTemperature(min)
-                .maxTemperature(max)
-                .averageTemperature(avg)
+                .minTemperature(totalCount > 0 ? min : 0.0)
+                .maxTemperature(totalCount > 0 ? max : 0.0)
+                .averageTemperature(totalCount > 0 ? sum / totalCount : 0.0)
                 .totalReadings(totalCount)
-                .averageByHour(hourlyAverages)
-                .averageByDayOfWeek(null)
+                .averageByHour(averages(hourSums))
+                .averageByDayOfWeek(averages(dayOfWeekSums))
                 .build();
     }
 
-    @Transactional(readOnly = true)
-    public Map<LocalTime, Double> getAverageTemperatureByHour() {
-        log.info("Pobieranie średniej temperatury według godzin");
-
-        List<Object[]> results = temperatureRepository.getAverageTemperatureByHour();
-        Map<LocalTime, Double> averages = new LinkedHashMap<>();
-
-        for (Object[] result : results) {
-            LocalTime hour = (LocalTime) result[0];
-            Double avgTemp = (Double) result[1];
-            averages.put(hour, Math.round(avgTemp * 100.0) / 100.0);
-        }
+    private static <K> void addTo(Map<K, double[]> sums, K key, double sum, long count) {
+        double[] running = sums.computeIfAbsent(key, k -> new double[2]);
+        running[0] += sum;
+        running[1] += count;
+    }
 
+    private static <K> Map<K, Double> averages(Map<K, double[]> sums) {
+        Map<K, Double> averages = new LinkedHashMap<>();
+        sums.forEach((key, running) -> averages.put(key, Math.round(running[0] / running[1] * 100.0) / 100.0));
         return averages;
     }
 
-    @Transactional(readOnly = true)
-    public List<TemperatureReading> getLatestReadings() {
-        log.info("Pobieranie najnowszych odczytów");
-        return temperatureRepository.findLatestReadings();
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<TemperatureReadingView> getLatestReadings(Integer limit) {
+        int capacity = latestBuffer.capacity();
+        int effectiveLimit = limit == null ? properties.getLatest().getDefaultLimit() : limit;
+        if (effectiveLimit < 1 || effectiveLimit > capacity) {
+            throw new InvalidTemperatureDataException("Parametr limit musi być od 1 do " + capacity);
+        }
+        log.info("Pobieranie {} najnowszych odczytów", effectiveLimit);
+        return latestBuffer.latest(effectiveLimit);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Double getAverageTemperatureByDate(LocalDate date) {
         log.info("Pobieranie średniej temperatury dla daty: {}", date);
-        Double average = temperatureRepository.getAverageTemperatureByDate(date);
-        return average != null ? Math.round(average * 100.0) / 100.0 : null;
+        if (columnStore.isEnabled() && !isPastRawRetention(date)) {
+            Double average = columnStore.averageForDate(date);
+            return average == null ? null : Math.round(average * 100.0) / 100.0;
+        }
+        // Średnia z podsumowania dziennego zamiast skanu surowych odczytów; obejmuje też część dnia
+        // przeniesioną już do agregatów retencji
+        return summaryRepository.findById(date)
+                .map(summary -> Math.round(summary.getTemperatureSum() / summary.getReadingCount() * 100.0) / 100.0)
+                .orElse(null);
+    }
+
+    private boolean isPastRawRetention(LocalDate date) {
+        TemperatureProperties.Retention retention = properties.getRetention();
+        return retention.isEnabled() && date.isBefore(LocalDate.now().minus(retention.getRawRetention()));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TemperatureReadingView getLatestReadingByDate(LocalDate date) {
+        log.info("Pobieranie ostatniego odczytu dla daty: {}", date);
+        if (columnStore.isEnabled()) {
+            TemperatureReadingView latest = columnStore.latestForDate(date);
+            if (latest == null) {
+                throw new TemperatureNotFoundException("Brak odczytów dla daty: " + date);
+            }
+            return latest;
+        }
+        List<TemperatureReadingView> cached = dateCache.getIfPresent(date);
+        TemperatureReadingView latest = cached == null ? temperatureRepository.findLatestViewByDate(date)
+                : cached.isEmpty() ? null : cached.get(cached.size() - 1);
+        if (latest == null) {
+            throw new TemperatureNotFoundException("Brak odczytów dla daty: " + date);
+        }
+        return latest;
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TemperatureCacheStats getCacheStats() {
+        return dateCache.stats();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TemperatureColumnStoreStats getColumnStoreStats() {
+        return columnStore.stats();
     }
 }
@@ -0,0 +1,192 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Statystyki globalne utrzymywane w pamięci zamiast trzech pełnych skanów tabeli przy każdym /stats.
+ * Budowane raz przy starcie jednym zapytaniem grupującym, potem aktualizowane po zatwierdzeniu
+ * każdej zmiany z {@link TemperatureReadingsChangedEvent}.
+ *
+ * <p>Min/max wyznaczane są z multizbioru wartości temperatur (wartość -> liczba wystąpień).
+ * Usunięcie bieżącego minimum lub maksimum przesuwa je do kolejnej istniejącej wartości bez zapytania
+ * do bazy; przy pomiarach z dokładnością 0.1°C multizbiór ma najwyżej ~2000 kluczy.
+ *
+ * <p>Odczyty przeniesione przez retencję do {@link TemperatureRollup} nadal się liczą: z agregatu godzinowego
+ * do średnich według pełnych godzin, z dziennego tylko do sum, min/max i średnich według dnia tygodnia.
+ * Skrajne wartości agregatów nigdy nie są usuwane, więc w multizbiorze wystarczy min i max każdego z nich.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TemperatureStatisticsAggregate implements SmartInitializingSingleton {
+
+    private final TemperatureReadingRepository temperatureRepository;
+    private final TemperatureRollupRepository rollupRepository;
+
+    private final TreeMap<Double, Long> valueCounts = new TreeMap<>();
+    private final TreeMap<LocalTime, RunningSum> hourlySums = new TreeMap<>();
+    private final TreeMap<Integer, RunningSum> dayOfWeekSums = new TreeMap<>();
+    private long count;
+    private double sum;
+
+    // Ostatnio zbudowany wynik; null po każdej zmianie
+    private TemperatureStats snapshot;
+
+    // Budowa przed startem serwera HTTP, żeby żadne żądanie nie zobaczyło pustych statystyk
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        valueCounts.clear();
+        hourlySums.clear();
+        dayOfWeekSums.clear();
+        count = 0;
+        sum = 0.0;
+
+        for (Object[] row : temperatureRepository.countReadingsByHourDayOfWeekAndTemperature()) {
+            LocalTime hour = (LocalTime) row[0];
+            Integer dayOfWeek = (Integer) row[1];
+            double temperature = ((Number) row[2]).doubleValue();
+            long occurrences = ((Number) row[3]).longValue();
+            add(hour, dayOfWeek, temperature, occurrences);
+        }
+        for (Object[] row : rollupRepository.sumByLevelHourAndDayOfWeek()) {
+            addRollup((TemperatureRollupLevel) row[0], (LocalTime) row[1], (Integer) row[2], ((Number) row[3]).longValue(),
+                    ((Number) row[4]).doubleValue(), ((Number) row[5]).doubleValue(), ((Number) row[6]).doubleValue());
+        }
+        snapshot = null;
+        log.info("Statystyki w pamięci zbudowane dla {} odczytów", count);
+    }
+
+    @Order(TemperatureReadingsChangedEvent.DERIVED_STATE_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReadingsChanged(TemperatureReadingsChangedEvent event) {
+        if (event.isCompaction()) {
+            // Odczyt zostaje w statystykach - zmienia się tylko klucz godziny na pełną godzinę agregatu
+            for (TemperatureReading reading : event.getRemoved()) {
+                addTo(hourlySums, reading.getHour(), -reading.getTemperature(), -1);
+                addTo(hourlySums, reading.getHour().truncatedTo(ChronoUnit.HOURS), reading.getTemperature(), 1);
+            }
+            snapshot = null;
+            return;
+        }
+        for (TemperatureReading reading : event.getRemoved()) {
+            add(reading.getHour(), reading.getDayOfWeek(), reading.getTemperature(), -1);
+        }
+        for (TemperatureReading reading : event.getAdded()) {
+            add(reading.getHour(), reading.getDayOfWeek(), reading.getTemperature(), 1);
+        }
+        snapshot = null;
+    }
+
+    @Order(TemperatureReadingsChangedEvent.DERIVED_STATE_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRollupsMerged(TemperatureRollupsMergedEvent event) {
+        // Agregat dzienny nie ma podziału na godziny - reszta statystyk bez zmian
+        for (TemperatureRollup rollup : event.getHourly()) {
+            addTo(hourlySums, rollup.getHour(), -rollup.getTemperatureSum(), -rollup.getReadingCount());
+        }
+        snapshot = null;
+    }
+
+    public synchronized TemperatureStats snapshot() {
+        if (snapshot == null) {
+            snapshot = TemperatureStats.builder()
+                    .minTemperature(count > 0 ? valueCounts.firstKey() : 0.0)
+                    .maxTemperature(count > 0 ? valueCounts.lastKey() : 0.0)
+                    .averageTemperature(count > 0 ? sum / count : 0.0)
+                    .totalReadings(count)
+                    .averageByHour(averages(hourlySums))
+                    .averageByDayOfWeek(averages(dayOfWeekSums))
+                    .build();
+        }
+        return snapshot;
+    }
+
+    private static <K> Map<K, Double> averages(Map<K, RunningSum> sums) {
+        Map<K, Double> averages = new LinkedHashMap<>();
+        sums.forEach((key, running) ->
+                averages.put(key, Math.round(running.sum / running.count * 100.0) / 100.0));
+        return Collections.unmodifiableMap(averages);
+    }
+
+    private void add(LocalTime hour, Integer dayOfWeek, double temperature, long occurrences) {
+        count += occurrences;
+        sum += temperature * occurrences;
+        // Przy count == 0 zerujemy sumę, żeby nie kumulować błędów zaokrągleń
+        if (count == 0) sum = 0.0;
+
+        valueCounts.merge(temperature, occurrences, (a, b) -> a + b == 0 ? null : a + b);
+
+        addTo(hourlySums, hour, temperature * occurrences, occurrences);
+        if (dayOfWeek != null) {
+            addTo(dayOfWeekSums, dayOfWeek, temperature * occurrences, occurrences);
+        }
+    }
+
+    private void addRollup(TemperatureRollupLevel level, LocalTime hour, Integer dayOfWeek, long occurrences,
+                           double temperatureSum, double min, double max) {
+        count += occurrences;
+        sum += temperatureSum;
+        valueCounts.merge(min, 1L, Long::sum);
+        valueCounts.merge(max, 1L, Long::sum);
+
+        if (level == TemperatureRollupLevel.HOUR) {
+            addTo(hourlySums, hour, temperatureSum, occurrences);
+        }
+        addTo(dayOfWeekSums, dayOfWeek, temperatureSum, occurrences);
+    }
+
+    private static <K> void addTo(Map<K, RunningSum> sums, K key, double temperatureSum, long occurrences) {
+        RunningSum running = sums.computeIfAbsent(key, k -> new RunningSum());
+        running.count += occurrences;
+        running.sum += temperatureSum;
+        if (running.count == 0) {
+            sums.remove(key);
+        }
+    }
+
+    /**
+     * Porównuje statystyki z pamięci ze statystykami policzonymi bezpośrednio z bazy.
+     */
+    static boolean matches(TemperatureStats memory, TemperatureStats database) {
+        return memory.getTotalReadings().equals(database.getTotalReadings())
+                && closeEnough(memory.getMinTemperature(), database.getMinTemperature())
+                && closeEnough(memory.getMaxTemperature(), database.getMaxTemperature())
+                && closeEnough(memory.getAverageTemperature(), database.getAverageTemperature())
+                && sameAverages(memory.getAverageByHour(), database.getAverageByHour())
+                && sameAverages(memory.getAverageByDayOfWeek(), database.getAverageByDayOfWeek());
+    }
+
+    private static <K> boolean sameAverages(Map<K, Double> memory, Map<K, Double> database) {
+        if (!memory.keySet().equals(database.keySet())) {
+            return false;
+        }
+        // Średnie są zaokrąglone do 0.01 - różna kolejność sumowania może przesunąć ostatnią cyfrę
+        return memory.entrySet().stream()
+                .allMatch(e -> Math.abs(e.getValue() - database.get(e.getKey())) <= 0.011);
+    }
+
+    private static boolean closeEnough(double a, double b) {
+        return Math.abs(a - b) <= 1e-6 * Math.max(1.0, Math.abs(b));
+    }
+
+    private static final class RunningSum {
+        private double sum;
+        private long count;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.temperaturemanagement.temperature;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemperatureStatsConsistency {
+
+    private boolean consistent;
+    private TemperatureStats memory;
+    private TemperatureStats database;
+}
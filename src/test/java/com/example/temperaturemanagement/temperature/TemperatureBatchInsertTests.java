@@ -0,0 +1,148 @@
+package com.example.temperaturemanagement.temperature;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dane przykładowe ładowane w tle zafałszowałyby licznik INSERT-ów
+@SpringBootTest(properties = "temperature.sample-data.background=false")
+class TemperatureBatchInsertTests {
+
+    private static final int ROWS = 500;
+    private static final AtomicLong INSERT_ROUND_TRIPS = new AtomicLong();
+
+    @Autowired
+    private TemperatureReadingRepository temperatureRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Test
+    void saveAllSendsOneInsertStatementPerBatch() {
+        long unbatched = countInsertStatements(1);
+        long batched = countInsertStatements(batchSize);
+
+        assertThat(unbatched).isEqualTo(ROWS);
+        assertThat(batched).isEqualTo((ROWS + batchSize - 1) / batchSize);
+    }
+
+    private long countInsertStatements(int sessionBatchSize) {
+        List<TemperatureReading> readings = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            readings.add(TemperatureReading.builder()
+                    .date(LocalDate.of(2020, 1, 1).plusDays(i / 24))
+                    .dayOfWeek(1 + (i / 24) % 7)
+                    .hour(LocalTime.of(i % 24, 0))
+                    .temperature(10.0 + i % 10)
+                    .source("BATCH_TEST_" + sessionBatchSize)
+                    .build());
+        }
+
+        INSERT_ROUND_TRIPS.set(0);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(sessionBatchSize);
+            temperatureRepository.saveAll(readings);
+        });
+        return INSERT_ROUND_TRIPS.get();
+    }
+
+    /**
+     * Liczy wywołania JDBC wysyłające INSERT do temperature_readings - jedno na wiersz albo jedno na paczkę.
+     */
+    @TestConfiguration
+    static class InsertCountingConfiguration {
+
+        @Bean
+        static BeanPostProcessor insertCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof InsertCountingDataSource)) {
+                        return new InsertCountingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    static class InsertCountingDataSource extends DelegatingDataSource {
+
+        InsertCountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private static Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement") && isReadingInsert((String) args[0])) {
+                            return countExecutions((PreparedStatement) result);
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement countExecutions(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            INSERT_ROUND_TRIPS.incrementAndGet();
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static boolean isReadingInsert(String sql) {
+            return sql.contains("insert") && sql.contains("temperature_readings");
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.temperaturemanagement.temperature;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TemperatureBinaryFormatTests {
+
+    @Test
+    void roundTripPreservesEveryField() throws IOException {
+        List<TemperatureReading> readings = readings(10_000);
+
+        List<TemperatureReading> decoded = read(write(readings));
+
+        assertThat(decoded).hasSize(readings.size());
+        for (int i = 0; i < readings.size(); i++) {
+            TemperatureReading expected = readings.get(i);
+            assertThat(decoded.get(i))
+                    .usingRecursiveComparison()
+                    .comparingOnlyFields("date", "dayOfWeek", "hour", "temperature", "source")
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void blockWithBadChecksumIsSkipped() throws IOException {
+        byte[] bytes = write(readings(TemperatureBinaryFormat.BLOCK_READINGS + 10));
+        // Pierwszy bajt treści pierwszego bloku: nagłówek pliku (5 B) + liczba i długość bloku (8 B)
+        bytes[13] ^= 0x01;
+
+        TemperatureBinaryFormat.Reader reader = new TemperatureBinaryFormat.Reader(new ByteArrayInputStream(bytes));
+        List<TemperatureReading> decoded = new ArrayList<>();
+
+        assertThatThrownBy(() -> reader.readBlock(decoded))
+                .isInstanceOfSatisfying(TemperatureBinaryFormat.CorruptBlockException.class,
+                        e -> assertThat(e.getReadings()).isEqualTo(TemperatureBinaryFormat.BLOCK_READINGS));
+        assertThat(reader.readBlock(decoded)).isEqualTo(10);
+        assertThat(reader.readBlock(decoded)).isEqualTo(-1);
+    }
+
+    private static List<TemperatureReading> readings(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        String[] sources = {"CSV", "SENSOR-1", null, "ŁÓDŹ"};
+        List<TemperatureReading> readings = new ArrayList<>(count);
+        LocalDate date = LocalDate.of(1969, 12, 25);
+        for (int i = 0; i < count; i++) {
+            if (random.nextInt(20) == 0) {
+                date = date.plusDays(random.nextInt(-3, 400));
+            }
+            readings.add(TemperatureReading.builder()
+                    .date(date)
+                    // Co dziesiąty odczyt z dniem tygodnia niezgodnym z datą
+                    .dayOfWeek(i % 10 == 0 ? random.nextInt(1, 8) : date.getDayOfWeek().getValue())
+                    .hour(LocalTime.ofSecondOfDay(random.nextInt(4) == 0 ? random.nextInt(86_400) : (i % 24) * 3600))
+                    .temperature(random.nextInt(5) == 0 ? -7.25 : Math.round(random.nextDouble(-40, 40) * 10) / 10.0)
+                    .source(sources[random.nextInt(8) == 0 ? random.nextInt(sources.length) : 0])
+                    .build());
+        }
+        return readings;
+    }
+
+    private static byte[] write(List<TemperatureReading> readings) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TemperatureBinaryFormat.Writer writer = new TemperatureBinaryFormat.Writer(output);
+        for (TemperatureReading reading : readings) {
+            writer.write(reading);
+        }
+        writer.finish();
+        return output.toByteArray();
+    }
+
+    private static List<TemperatureReading> read(byte[] bytes) throws IOException {
+        TemperatureBinaryFormat.Reader reader = new TemperatureBinaryFormat.Reader(new ByteArrayInputStream(bytes));
+        List<TemperatureReading> readings = new ArrayList<>();
+        while (reader.readBlock(readings) >= 0) {
+            // kolejne bloki
+        }
+        return readings;
+    }
+}
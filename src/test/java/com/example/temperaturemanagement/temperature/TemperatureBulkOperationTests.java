@@ -0,0 +1,148 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.InvalidTemperatureDataException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+// Paczki po 100 odczytów = dwa dni po 48 odczytów, więc zakresy niżej są zmieniane kilkoma instrukcjami
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-tests",
+        "spring.jpa.show-sql=false",
+        "temperature.sample-data.enabled=false",
+        "temperature.columnar.enabled=true",
+        "temperature.bulk.batch-size=100"
+})
+class TemperatureBulkOperationTests {
+
+    private static final int DAYS = 10;
+
+    @Autowired
+    private TemperatureService temperatureService;
+
+    @Autowired
+    private TemperatureReadingRepository temperatureRepository;
+
+    @Autowired
+    private TemperatureDailySummaryRepository summaryRepository;
+
+    @Autowired
+    private TemperatureColumnStore columnStore;
+
+    @Test
+    void bulkUpdateAndDeleteKeepDerivedStateInSync() {
+        LocalDate first = LocalDate.of(2023, 3, 1);
+        seed(first, 20.0);
+
+        TemperatureBulkResult shifted = temperatureService.updateReadings(first.plusDays(1), first.plusDays(6), "SENSOR-1",
+                TemperatureBulkUpdateRequest.builder().temperatureOffset(-1.5).build());
+        assertThat(shifted.getAffectedRows()).isEqualTo(6 * 24);
+
+        TemperatureBulkResult moved = temperatureService.updateReadings(first.plusDays(3), first.plusDays(4), "CSV",
+                TemperatureBulkUpdateRequest.builder().source("SENSOR-2").build());
+        assertThat(moved.getAffectedRows()).isEqualTo(2 * 24);
+
+        TemperatureBulkResult deleted = temperatureService.deleteReadings(first.plusDays(5), first.plusDays(8), null);
+        assertThat(deleted.getAffectedRows()).isEqualTo(4 * 48);
+
+        assertThat(temperatureService.deleteReadings(first.plusDays(5), first.plusDays(8), null).getAffectedRows()).isZero();
+        assertThat(temperatureService.checkStatisticsConsistency().isConsistent()).isTrue();
+        assertDerivedStateMatchesDatabase(first);
+    }
+
+    @Test
+    void outOfRangeOffsetIsRejectedBeforeAnyChange() {
+        LocalDate first = LocalDate.of(2022, 3, 1);
+        seed(first, 95.0);
+        List<Double> averages = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            averages.add(temperatureRepository.getAverageTemperatureByDate(first.plusDays(day)));
+        }
+
+        // Tylko ostatni dzień przekroczyłby 100°C - wcześniejsze paczki też nie mogą zostać zmienione
+        assertThatThrownBy(() -> temperatureService.updateReadings(first, first.plusDays(DAYS - 1), null,
+                TemperatureBulkUpdateRequest.builder().temperatureOffset(10.0).build()))
+                .isInstanceOf(InvalidTemperatureDataException.class)
+                .hasMessageContaining(first.plusDays(DAYS - 1).toString());
+
+        for (int day = 0; day < DAYS; day++) {
+            assertThat(temperatureRepository.getAverageTemperatureByDate(first.plusDays(day))).isEqualTo(averages.get(day));
+        }
+        assertThat(temperatureService.checkStatisticsConsistency().isConsistent()).isTrue();
+        assertDerivedStateMatchesDatabase(first);
+    }
+
+    @Test
+    void failureInALaterBatchRollsBackTheEarlierOnes() {
+        LocalDate first = LocalDate.of(2024, 3, 1);
+        LocalDate last = first.plusDays(DAYS - 1);
+        seed(first, 20.0);
+        // Zajęty klucz naturalny dopiero w ostatnim dniu - pierwsze paczki zmieniłyby się bez błędu
+        temperatureService.importReadings(List.of(TemperatureReading.builder()
+                .date(last)
+                .dayOfWeek(last.getDayOfWeek().getValue())
+                .hour(LocalTime.of(0, 0))
+                .temperature(1.0)
+                .source("SENSOR-2")
+                .build()));
+
+        assertThatThrownBy(() -> temperatureService.updateReadings(first, last, "CSV",
+                TemperatureBulkUpdateRequest.builder().source("SENSOR-2").build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(temperatureRepository.summarizeByDateBetween(first, last, "SENSOR-2")).hasSize(1);
+        assertThat(temperatureRepository.summarizeByDateBetween(first, last, "CSV")).hasSize(DAYS);
+        assertThat(temperatureService.checkStatisticsConsistency().isConsistent()).isTrue();
+        assertDerivedStateMatchesDatabase(first);
+    }
+
+    // Dwa źródła po 24 odczyty dziennie; najwyższa temperatura przypada na ostatni dzień
+    private void seed(LocalDate first, double maxTemperature) {
+        List<TemperatureReading> readings = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = first.plusDays(day);
+            for (int hour = 0; hour < 24; hour++) {
+                for (String source : new String[]{"CSV", "SENSOR-1"}) {
+                    double temperature = day == DAYS - 1 && hour == 12 ? maxTemperature : day + hour / 4.0;
+                    readings.add(TemperatureReading.builder()
+                            .date(date)
+                            .dayOfWeek(date.getDayOfWeek().getValue())
+                            .hour(LocalTime.of(hour, 0))
+                            .temperature(source.equals("CSV") ? temperature : -temperature)
+                            .source(source)
+                            .build());
+                }
+            }
+        }
+        temperatureService.importReadings(readings);
+    }
+
+    private void assertDerivedStateMatchesDatabase(LocalDate first) {
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = first.plusDays(day);
+            long count = temperatureRepository.countReadingsByDate(date);
+            Double average = temperatureRepository.getAverageTemperatureByDate(date);
+            Optional<TemperatureDailySummary> summary = summaryRepository.findById(date);
+            if (count == 0) {
+                assertThat(summary).as("podsumowanie %s", date).isEmpty();
+                assertThat(columnStore.averageForDate(date)).isNull();
+                continue;
+            }
+            assertThat(summary).as("podsumowanie %s", date).isPresent();
+            assertThat(summary.get().getReadingCount()).isEqualTo(count);
+            assertThat(summary.get().getTemperatureSum() / count).isCloseTo(average, offset(1e-9));
+            assertThat(columnStore.averageForDate(date)).isCloseTo(average, offset(1e-9));
+        }
+    }
+}
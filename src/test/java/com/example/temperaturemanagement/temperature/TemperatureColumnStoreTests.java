@@ -0,0 +1,205 @@
+package com.example.temperaturemanagement.temperature;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+// Replika kolumnowa kontra zapytania do bazy na tych samych danych, po imporcie i po zapisach aktualizujących bloki
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:columnar-tests",
+        "spring.jpa.show-sql=false",
+        "temperature.sample-data.enabled=false",
+        "temperature.columnar.enabled=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TemperatureColumnStoreTests {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 20);
+    private static final int DAYS = 60;
+    private static final String[] SOURCES = {"CSV", "SENSOR-1", "ŁÓDŹ", null};
+
+    @Autowired
+    private TemperatureService temperatureService;
+
+    @Autowired
+    private TemperatureColumnStore columnStore;
+
+    @Autowired
+    private TemperatureAggregationService aggregationService;
+
+    @Autowired
+    private TemperatureReadingRepository temperatureRepository;
+
+    @BeforeAll
+    void loadReadingsAndApplyWrites() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<TemperatureReading> readings = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            for (String source : SOURCES) {
+                // Te same godziny w różnych źródłach - kolejność w bloku rozstrzyga id
+                for (int hour = 0; hour < 24; hour += 1 + random.nextInt(3)) {
+                    readings.add(TemperatureReading.builder()
+                            .date(date)
+                            .dayOfWeek(random.nextInt(10) == 0 ? 1 + random.nextInt(7) : date.getDayOfWeek().getValue())
+                            .hour(LocalTime.of(hour, random.nextInt(4) * 15))
+                            .temperature(Math.round(random.nextDouble(-20, 35) * 10) / 10.0)
+                            .source(source)
+                            .build());
+                }
+            }
+        }
+        // Odczyty w losowej kolejności - bloki muszą same ułożyć je po (godzina, id)
+        for (int i = readings.size() - 1; i > 0; i--) {
+            readings.set(i, readings.set(random.nextInt(i + 1), readings.get(i)));
+        }
+        for (int from = 0; from < readings.size(); from += 500) {
+            temperatureService.importReadings(readings.subList(from, Math.min(readings.size(), from + 500)));
+        }
+
+        List<TemperatureReadingView> firstDay = temperatureRepository.findViewsByDate(FIRST_DAY);
+        temperatureService.deleteReading(firstDay.get(3).getId());
+        temperatureService.updateReading(firstDay.get(5).getId(), TemperatureUpdateRequest.builder()
+                .date(FIRST_DAY.plusDays(7))
+                .hour(LocalTime.of(12, 7, 30))
+                .temperature(-3.3)
+                .build());
+        temperatureService.createReading(TemperatureCreateRequest.builder()
+                .date(FIRST_DAY.plusDays(7))
+                .dayOfWeek(FIRST_DAY.plusDays(7).getDayOfWeek().getValue())
+                .hour(LocalTime.of(12, 7, 30))
+                .temperature(4.4)
+                .source("NEW")
+                .build());
+        temperatureService.updateReadings(FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(12), "CSV",
+                TemperatureBulkUpdateRequest.builder().source("SENSOR-2").build());
+        temperatureService.deleteReadings(FIRST_DAY.plusDays(20), FIRST_DAY.plusDays(20), null);
+    }
+
+    @Test
+    void pagesMatchKeysetQueries() {
+        for (String source : new String[]{null, "CSV", "SENSOR-2", "NEW", "UNKNOWN"}) {
+            assertSamePages(source, null, null, 97);
+            assertSamePages(source, FIRST_DAY.plusDays(7), FIRST_DAY.plusDays(7), 10);
+            assertSamePages(source, FIRST_DAY.plusDays(9), FIRST_DAY.plusDays(31), 250);
+        }
+    }
+
+    @Test
+    void averagesAndLatestReadingsMatchDatabase() {
+        for (int day = -1; day <= DAYS; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            Double database = temperatureRepository.getAverageTemperatureByDate(date);
+            if (database == null) {
+                assertThat(columnStore.averageForDate(date)).isNull();
+                assertThat(columnStore.latestForDate(date)).isNull();
+                continue;
+            }
+            List<TemperatureReadingView> readings = temperatureRepository.findViewsByDate(date);
+            assertThat(columnStore.averageForDate(date)).isCloseTo(database, offset(1e-9));
+            assertThat(columnStore.latestForDate(date))
+                    .usingRecursiveComparison()
+                    .ignoringFields("createdAt", "updatedAt")
+                    .isEqualTo(readings.get(readings.size() - 1));
+        }
+    }
+
+    @Test
+    void aggregationsMatchGroupByQueries() {
+        List<Set<TemperatureAggregationDimension>> groupings = List.of(
+                EnumSet.noneOf(TemperatureAggregationDimension.class),
+                EnumSet.of(TemperatureAggregationDimension.HOUR),
+                EnumSet.of(TemperatureAggregationDimension.DAY_OF_WEEK, TemperatureAggregationDimension.SOURCE),
+                EnumSet.of(TemperatureAggregationDimension.DAY),
+                EnumSet.of(TemperatureAggregationDimension.WEEK, TemperatureAggregationDimension.SOURCE),
+                EnumSet.of(TemperatureAggregationDimension.MONTH, TemperatureAggregationDimension.HOUR));
+        for (Set<TemperatureAggregationDimension> dimensions : groupings) {
+            for (String source : new String[]{null, "SENSOR-1"}) {
+                assertSameAggregation(new LinkedHashSet<>(dimensions), null, null, source);
+                assertSameAggregation(new LinkedHashSet<>(dimensions), FIRST_DAY.plusDays(3), FIRST_DAY.plusDays(40), source);
+            }
+        }
+    }
+
+    @Test
+    void weeksStartOnTheMondayOfTheDateRegardlessOfStoredDayOfWeek() {
+        List<TemperatureAggregationDimension> week = List.of(TemperatureAggregationDimension.WEEK);
+        List<Object[]> columnar = columnStore.aggregate(week, null, null, null);
+        List<Object[]> database = aggregationService.queryDatabase(EnumSet.copyOf(week), null, null, null);
+
+        assertThat(columnar).hasSameSizeAs(database);
+        for (int i = 0; i < database.size(); i++) {
+            LocalDate monday = (LocalDate) columnar.get(i)[0];
+            assertThat(monday.getDayOfWeek()).isEqualTo(DayOfWeek.MONDAY);
+            assertThat(database.get(i)[0]).isEqualTo(monday);
+            long count = 0;
+            for (int day = 0; day < 7; day++) {
+                count += temperatureRepository.countReadingsByDate(monday.plusDays(day));
+            }
+            assertThat(((Number) columnar.get(i)[1]).longValue()).isEqualTo(count);
+            assertThat(((Number) database.get(i)[1]).longValue()).isEqualTo(count);
+        }
+    }
+
+    private void assertSamePages(String source, LocalDate startDate, LocalDate endDate, int pageSize) {
+        List<TemperatureReadingView> columnar = new ArrayList<>();
+        List<TemperatureReadingView> database = new ArrayList<>();
+        TemperatureCursor after = null;
+        while (true) {
+            List<TemperatureReadingView> page = columnStore.page(source, startDate, endDate, after, pageSize);
+            List<TemperatureReadingView> expected = after == null
+                    ? temperatureRepository.findFirstPageViews(source, startDate, endDate, Limit.of(pageSize))
+                    : temperatureRepository.findPageAfterViews(source, startDate, endDate,
+                    after.getDate(), after.getHour(), after.getId(), Limit.of(pageSize));
+            columnar.addAll(page);
+            database.addAll(expected);
+            if (page.size() < pageSize || expected.size() < pageSize) {
+                break;
+            }
+            after = TemperatureCursor.after(page.get(page.size() - 1));
+        }
+        // Znaczniki czasu mają w replice dokładność mikrosekund, a w bazie są zaokrąglane do niej
+        assertThat(columnar)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("createdAt", "updatedAt")
+                .containsExactlyElementsOf(database);
+    }
+
+    private void assertSameAggregation(Set<TemperatureAggregationDimension> dimensions,
+                                       LocalDate startDate, LocalDate endDate, String source) {
+        List<Object[]> columnar = columnStore.aggregate(List.copyOf(dimensions), startDate, endDate, source);
+        List<Object[]> database = aggregationService.queryDatabase(dimensions, startDate, endDate, source);
+
+        assertThat(columnar).hasSameSizeAs(database);
+        int groups = dimensions.size();
+        for (int i = 0; i < database.size(); i++) {
+            Object[] expected = database.get(i);
+            Object[] actual = columnar.get(i);
+            for (int d = 0; d < groups; d++) {
+                assertThat(actual[d]).as("%s, wiersz %d", dimensions, i)
+                        .isEqualTo(expected[d] instanceof Number number && !(expected[d] instanceof Integer)
+                                ? number.intValue() : expected[d]);
+            }
+            assertThat(((Number) actual[groups]).longValue()).isEqualTo(((Number) expected[groups]).longValue());
+            for (int m = groups + 1; m < groups + 5; m++) {
+                assertThat(((Number) actual[m]).doubleValue())
+                        .isCloseTo(((Number) expected[m]).doubleValue(), offset(1e-6));
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.TemperatureServiceOverloadedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Jedno zezwolenie: transakcja w drugim wątku zajmuje bramkę, więc każda droga do bazy musi czekać
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:db-gate-tests",
+        "spring.jpa.show-sql=false",
+        "temperature.sample-data.enabled=false",
+        "temperature.db-gate.permits=1",
+        "temperature.db-gate.acquire-timeout=100ms"
+})
+class TemperatureDatabaseGateTests {
+
+    @Autowired
+    private TemperatureDatabaseGate databaseGate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TemperatureAggregationService aggregationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void jdbcAndEntityManagerQueriesWaitForTheHeldConnection() throws Exception {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM temperature_readings", Long.class)).isZero();
+
+        CountDownLatch opened = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                    opened.countDown();
+                    try {
+                        finish.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(opened.await(10, TimeUnit.SECONDS)).isTrue();
+        long rejected = databaseGate.stats().getRejected();
+        try {
+            assertThatThrownBy(() -> jdbcTemplate.queryForObject("SELECT 1", Integer.class))
+                    .isInstanceOf(TemperatureServiceOverloadedException.class);
+            assertThatThrownBy(() -> aggregationService.queryDatabase(Set.of(), null, null, null))
+                    .hasRootCauseInstanceOf(TemperatureServiceOverloadedException.class);
+            assertThat(databaseGate.stats().getRejected()).isEqualTo(rejected + 2);
+        } finally {
+            finish.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+
+        // Po zamknięciu połączenia zezwolenie wraca do bramki
+        assertThat(databaseGate.stats().getInUse()).isZero();
+        assertThat(aggregationService.queryDatabase(Set.of(), null, null, null)).hasSize(1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.temperaturemanagement.temperature;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Ścieżka bez repliki kolumnowej: strony z bazy, cache tylko dla dat mieszczących się na jednej stronie
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:date-cache-tests",
+        "spring.jpa.show-sql=false",
+        "temperature.sample-data.enabled=false",
+        "temperature.columnar.enabled=false"
+})
+class TemperatureDateCacheTests {
+
+    private static final LocalDate LARGE_DATE = LocalDate.of(2024, 5, 6);
+    private static final LocalDate SMALL_DATE = LocalDate.of(2024, 5, 7);
+
+    @Autowired
+    private TemperatureService temperatureService;
+
+    @Autowired
+    private TemperatureReadingRepository temperatureRepository;
+
+    @Test
+    void largeDatesArePagedInTheDatabaseAndSmallOnesAreCachedUntilWritten() {
+        List<TemperatureReading> readings = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            readings.add(reading(LARGE_DATE, LocalTime.of(i % 24, i / 24), i / 3.0));
+        }
+        for (int i = 0; i < 5; i++) {
+            readings.add(reading(SMALL_DATE, LocalTime.of(23 - i, 0), i));
+        }
+        temperatureService.importReadings(readings);
+
+        List<TemperatureReadingView> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            TemperaturePage<TemperatureReadingView> page = temperatureService.getReadingsPage(null, LARGE_DATE, LARGE_DATE, cursor, 10);
+            pages.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(pages).containsExactlyElementsOf(temperatureRepository.findViewsByDate(LARGE_DATE));
+        assertThat(temperatureService.getCacheStats().getCachedDates()).isZero();
+
+        assertThat(temperatureService.getReadingsPage(null, SMALL_DATE, SMALL_DATE, null, 10).getItems()).hasSize(5);
+        assertThat(temperatureService.getCacheStats().getCachedDates()).isEqualTo(1);
+        long hits = temperatureService.getCacheStats().getHitCount();
+        assertThat(temperatureService.getReadingsPage("CSV", SMALL_DATE, SMALL_DATE, null, 2).getItems()).hasSize(2);
+        assertThat(temperatureService.getLatestReadingByDate(SMALL_DATE).getHour()).isEqualTo(LocalTime.of(23, 0));
+        assertThat(temperatureService.getCacheStats().getHitCount()).isEqualTo(hits + 2);
+
+        // Zapis unieważnia datę - kolejna strona widzi nowy odczyt
+        temperatureService.createReading(TemperatureCreateRequest.builder()
+                .date(SMALL_DATE)
+                .dayOfWeek(SMALL_DATE.getDayOfWeek().getValue())
+                .hour(LocalTime.of(23, 30))
+                .temperature(40.0)
+                .build());
+        assertThat(temperatureService.getReadingsPage(null, SMALL_DATE, SMALL_DATE, null, 10).getItems()).hasSize(6);
+        assertThat(temperatureService.getLatestReadingByDate(SMALL_DATE).getTemperature()).isEqualTo(40.0);
+
+        // Średnia dnia z podsumowania dziennego
+        assertThat(temperatureService.getAverageTemperatureByDate(LARGE_DATE))
+                .isEqualTo(Math.round(temperatureRepository.getAverageTemperatureByDate(LARGE_DATE) * 100.0) / 100.0);
+        assertThat(temperatureService.getAverageTemperatureByDate(SMALL_DATE)).isEqualTo(8.33);
+        assertThat(temperatureService.getAverageTemperatureByDate(SMALL_DATE.plusDays(1))).isNull();
+    }
+
+    private static TemperatureReading reading(LocalDate date, LocalTime hour, double temperature) {
+        return TemperatureReading.builder()
+                .date(date)
+                .dayOfWeek(date.getDayOfWeek().getValue())
+                .hour(hour)
+                .temperature(temperature)
+                .source("CSV")
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import-tests",
+        "spring.jpa.show-sql=false",
+        "temperature.sample-data.enabled=false"
+})
+class TemperatureImportTests {
+
+    private static final String DAY_OF_WEEK_ERROR = "Dzień tygodnia musi być od 1 do 7";
+
+    @Autowired
+    private TemperatureService temperatureService;
+
+    @Autowired
+    private TemperatureReadingRepository temperatureRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void binaryImportRejectsDayOfWeekOutsideOneToSevenLikeCsv() throws IOException {
+        LocalDate date = LocalDate.of(2021, 6, 1);
+        // Dzień tygodnia 0 niezgodny z datą - zapisywany na 3 bitach, więc format go przenosi
+        List<TemperatureReading> readings = List.of(
+                reading(date, 0, 10.0, date.getDayOfWeek().getValue()),
+                reading(date, 1, 11.0, 0),
+                reading(date, 2, 12.0, date.getDayOfWeek().getValue()));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TemperatureBinaryFormat.Writer writer = new TemperatureBinaryFormat.Writer(output);
+        for (TemperatureReading reading : readings) {
+            writer.write(reading);
+        }
+        writer.finish();
+
+        TemperatureImportSummary binary = temperatureService.importFromBinary(
+                new MockMultipartFile("file", "bad-day.bin", "application/octet-stream", output.toByteArray()),
+                TemperatureImportMode.INSERT);
+
+        assertThat(binary.getImportedRows()).isEqualTo(2);
+        assertThat(binary.getRejectedRows()).isEqualTo(1);
+        assertThat(binary.getSampleErrors()).containsExactly("Odczyt 2: " + DAY_OF_WEEK_ERROR);
+        assertThat(temperatureRepository.countReadingsByDate(date)).isEqualTo(2);
+
+        String csv = TemperatureCsvParser.HEADER + "\n"
+                + TemperatureCsvParser.formatLine(reading(date.plusDays(1), 0, 10.0, date.plusDays(1).getDayOfWeek().getValue())) + "\n"
+                + TemperatureCsvParser.formatLine(reading(date.plusDays(1), 1, 11.0, 0)) + "\n";
+        TemperatureImportSummary text = temperatureService.importFromCsvStreaming(
+                new MockMultipartFile("file", "bad-day.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)),
+                TemperatureImportMode.INSERT);
+
+        assertThat(text.getRejectedRows()).isEqualTo(1);
+        assertThat(text.getSampleErrors()).singleElement().asString().endsWith(": " + DAY_OF_WEEK_ERROR);
+    }
+
+    @Test
+    void upsertImportCountsChangesAndIsIdempotent() throws IOException {
+        LocalDate date = LocalDate.of(2021, 7, 1);
+        List<TemperatureReading> readings = new ArrayList<>();
+        for (int hour = 0; hour < 5; hour++) {
+            readings.add(reading(date, hour, 10.0 + hour, date.getDayOfWeek().getValue()));
+        }
+
+        TemperatureImportSummary first = importCsv(readings, TemperatureImportMode.UPSERT);
+        assertThat(first).extracting(TemperatureImportSummary::getInsertedRows, TemperatureImportSummary::getUpdatedRows,
+                TemperatureImportSummary::getUnchangedRows).containsExactly(5L, 0L, 0L);
+
+        // Ten sam plik drugi raz niczego nie zmienia
+        TemperatureStats stats = temperatureService.getStatistics();
+        TemperatureImportSummary again = importCsv(readings, TemperatureImportMode.UPSERT);
+        assertThat(again).extracting(TemperatureImportSummary::getInsertedRows, TemperatureImportSummary::getUpdatedRows,
+                TemperatureImportSummary::getUnchangedRows).containsExactly(0L, 0L, 5L);
+        assertThat(TemperatureStatisticsAggregate.matches(temperatureService.getStatistics(), stats)).isTrue();
+        assertThat(temperatureRepository.countReadingsByDate(date)).isEqualTo(5);
+
+        readings.set(1, reading(date, 1, -4.5, date.getDayOfWeek().getValue()));
+        readings.set(3, reading(date, 3, 30.0, date.getDayOfWeek().getValue()));
+        readings.add(reading(date, 5, 15.0, date.getDayOfWeek().getValue()));
+        TemperatureImportSummary changed = importCsv(readings, TemperatureImportMode.UPSERT);
+        assertThat(changed).extracting(TemperatureImportSummary::getInsertedRows, TemperatureImportSummary::getUpdatedRows,
+                TemperatureImportSummary::getUnchangedRows).containsExactly(1L, 2L, 3L);
+
+        assertThat(temperatureRepository.findViewsByDate(date))
+                .extracting(TemperatureReadingView::getTemperature)
+                .containsExactly(10.0, -4.5, 12.0, 30.0, 14.0, 15.0);
+        assertThat(temperatureService.getAverageTemperatureByDate(date)).isEqualTo(12.75);
+        assertThat(temperatureService.checkStatisticsConsistency().isConsistent()).isTrue();
+    }
+
+    @Test
+    void onlyTheNaturalKeyViolationIsAConflict() throws IOException {
+        LocalDate date = LocalDate.of(2021, 8, 1);
+        List<TemperatureReading> readings = List.of(reading(date, 0, 1.0, date.getDayOfWeek().getValue()));
+        importCsv(readings, TemperatureImportMode.INSERT);
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        DataIntegrityViolationException duplicate = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> importCsv(readings, TemperatureImportMode.INSERT));
+        assertThat(handler.handleDataIntegrityViolationException(duplicate, request).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+
+        DataIntegrityViolationException notNull = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update(
+                        "INSERT INTO temperature_readings (date, day_of_week, reading_hour, source) VALUES (?, 1, ?, 'CSV')",
+                        date, LocalTime.of(1, 0)));
+        assertThat(handler.handleDataIntegrityViolationException(notNull, request).getStatusCode())
+                .isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private TemperatureImportSummary importCsv(List<TemperatureReading> readings, TemperatureImportMode mode) throws IOException {
+        StringBuilder csv = new StringBuilder(TemperatureCsvParser.HEADER).append('\n');
+        readings.forEach(reading -> csv.append(TemperatureCsvParser.formatLine(reading)).append('\n'));
+        return temperatureService.importFromCsvStreaming(
+                new MockMultipartFile("file", "readings.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8)), mode);
+    }
+
+    private static TemperatureReading reading(LocalDate date, int hour, double temperature, int dayOfWeek) {
+        return TemperatureReading.builder()
+                .date(date)
+                .dayOfWeek(dayOfWeek)
+                .hour(LocalTime.of(hour, 0))
+                .temperature(temperature)
+                .source("CSV")
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TemperatureLatestBufferTests {
+
+    @Test
+    void updatesAndDeletesFindTheirSlotAfterWrapAround() {
+        TemperatureProperties properties = new TemperatureProperties();
+        properties.getLatest().setCapacity(4);
+        TemperatureLatestBuffer buffer = new TemperatureLatestBuffer(null, properties);
+
+        List<TemperatureReading> added = new ArrayList<>();
+        for (long id = 1; id <= 6; id++) {
+            added.add(reading(id, 10.0));
+        }
+        buffer.onReadingsChanged(TemperatureReadingsChangedEvent.created(added));
+
+        buffer.onReadingsChanged(TemperatureReadingsChangedEvent.updated(reading(4, 10.0), reading(4, 20.0)));
+        buffer.onReadingsChanged(TemperatureReadingsChangedEvent.deleted(reading(5, 10.0)));
+        // Odczyt 1 wypadł już z bufora - jego aktualizacja niczego nie zmienia
+        buffer.onReadingsChanged(TemperatureReadingsChangedEvent.updated(reading(1, 10.0), reading(1, 30.0)));
+
+        assertThat(buffer.latest(4))
+                .extracting(TemperatureReadingView::getId, TemperatureReadingView::getTemperature)
+                .containsExactly(tuple(6L, 10.0), tuple(4L, 20.0), tuple(3L, 10.0));
+    }
+
+    private static TemperatureReading reading(long id, double temperature) {
+        return TemperatureReading.builder()
+                .id(id)
+                .date(LocalDate.of(2025, 1, 1))
+                .dayOfWeek(3)
+                .hour(LocalTime.of((int) id, 0))
+                .temperature(temperature)
+                .source("CSV")
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.temperaturemanagement.temperature;
+
+import com.example.temperaturemanagement.config.TemperatureProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Osobna baza w pamięci - kompaktowanie przenosi wszystkie stare odczyty, także cudze
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:retention-tests",
+        "spring.jpa.show-sql=false",
+        "temperature.sample-data.enabled=false",
+        "temperature.retention.enabled=true",
+        "temperature.retention.pause=0ms"
+})
+class TemperatureRetentionTests {
+
+    @Autowired
+    private TemperatureService temperatureService;
+
+    @Autowired
+    private TemperatureRetentionCompactor compactor;
+
+    @Autowired
+    private TemperatureReadingRepository temperatureRepository;
+
+    @Autowired
+    private TemperatureRollupRepository rollupRepository;
+
+    @Autowired
+    private TemperatureDataVersion dataVersion;
+
+    @Autowired
+    private TemperatureProperties properties;
+
+    @Test
+    void compactionAndMergeKeepTotalsAndChangeTheEtag() {
+        LocalDate old = LocalDate.now().minusDays(400);
+        LocalDate recent = LocalDate.now().minusDays(1);
+        List<TemperatureReading> readings = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            readings.add(reading(old, hour, -5.0 + hour));
+            readings.add(reading(old.plusDays(1), hour, 3.5 + hour / 2.0));
+            readings.add(reading(recent, hour, 10.0 - hour / 4.0));
+        }
+        temperatureService.importReadings(readings);
+
+        TemperatureStats before = temperatureService.getStatistics();
+        Double oldAverage = temperatureService.getAverageTemperatureByDate(old);
+        Period hourlyRetention = properties.getRetention().getHourlyRetention();
+        try {
+            // Najpierw tylko surowe odczyty do agregatów godzinowych
+            properties.getRetention().setHourlyRetention(Period.ofYears(10));
+            String beforeCompaction = dataVersion.global().getEtag();
+            compactor.compact();
+
+            assertThat(temperatureRepository.countByDateBetween(old, old.plusDays(1))).isZero();
+            assertThat(rollupRepository.countByDateBetween(old, old.plusDays(1))).isEqualTo(48);
+            assertThat(temperatureRepository.countByDateBetween(recent, recent)).isEqualTo(24);
+            assertThat(TemperatureStatisticsAggregate.matches(temperatureService.getStatistics(), before)).isTrue();
+            assertThat(temperatureService.checkStatisticsConsistency().isConsistent()).isTrue();
+            assertThat(dataVersion.global().getEtag()).isNotEqualTo(beforeCompaction);
+
+            // Potem agregaty godzinowe do dziennych - znika podział na godziny w /stats/hourly
+            properties.getRetention().setHourlyRetention(hourlyRetention);
+            String beforeMerge = dataVersion.global().getEtag();
+            compactor.compact();
+
+            assertThat(rollupRepository.countByDateBetween(old, old.plusDays(1))).isEqualTo(2);
+            assertThat(temperatureService.getStatistics().getTotalReadings()).isEqualTo(before.getTotalReadings());
+            assertThat(temperatureService.getAverageTemperatureByHour().get(LocalTime.of(0, 0))).isEqualTo(10.0);
+            assertThat(temperatureService.checkStatisticsConsistency().isConsistent()).isTrue();
+            assertThat(temperatureService.getAverageTemperatureByDate(old)).isEqualTo(oldAverage);
+            assertThat(dataVersion.global().getEtag()).isNotEqualTo(beforeMerge);
+        } finally {
+            properties.getRetention().setHourlyRetention(hourlyRetention);
+        }
+    }
+
+    private static TemperatureReading reading(LocalDate date, int hour, double temperature) {
+        return TemperatureReading.builder()
+                .date(date)
+                .dayOfWeek(date.getDayOfWeek().getValue())
+                .hour(LocalTime.of(hour, 0))
+                .temperature(temperature)
+                .source("CSV")
+                .build();
+    }
+}
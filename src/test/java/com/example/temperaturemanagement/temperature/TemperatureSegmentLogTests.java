@@ -0,0 +1,150 @@
+package com.example.temperaturemanagement.temperature;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemperatureSegmentLogTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenRestoresUpdatesAndDeletes() throws IOException {
+        try (TemperatureSegmentLog log = open(1 << 20)) {
+            log.append(List.of(), List.of(reading(1, 10.0, "A"), reading(2, 11.0, null), reading(3, 12.0, "B")), false);
+            log.append(List.of(reading(1, 10.0, "A")), List.of(reading(1, -5.5, "C")), false);
+            log.append(List.of(reading(2, 11.0, null)), List.of(), false);
+        }
+
+        List<TemperatureReading> restored = restore(1 << 20);
+
+        assertThat(restored).extracting(TemperatureReading::getId).containsExactly(1L, 3L);
+        assertThat(restored.get(0)).isEqualTo(reading(1, -5.5, "C"));
+        assertThat(restored.get(1)).isEqualTo(reading(3, 12.0, "B"));
+    }
+
+    @Test
+    void tornRecordAtTheEndIsDiscardedAndOverwritten() throws IOException {
+        try (TemperatureSegmentLog log = open(1 << 20)) {
+            log.append(List.of(), List.of(reading(1, 10.0, "A")), false);
+            log.append(List.of(), List.of(reading(2, 11.0, "A")), false);
+        }
+        try (RandomAccessFile segment = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            // Temperatura drugiego rekordu zapisana tylko w części
+            segment.seek(TemperatureSegmentLog.RECORD_SIZE + 24);
+            segment.write(0x7f);
+        }
+
+        try (TemperatureSegmentLog log = open(1 << 20)) {
+            assertThat(log.liveCount()).isEqualTo(1);
+            log.append(List.of(), List.of(reading(3, 13.0, "A")), false);
+        }
+
+        assertThat(restore(1 << 20)).extracting(TemperatureReading::getId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void snapshotReplacesCoveredSegments() throws IOException {
+        int segmentSize = 4 * TemperatureSegmentLog.RECORD_SIZE;
+        try (TemperatureSegmentLog log = open(segmentSize)) {
+            for (long id = 1; id <= 10; id++) {
+                log.append(List.of(), List.of(reading(id, id, "A")), false);
+            }
+            assertThat(log.segmentCount()).isEqualTo(3);
+
+            assertThat(log.snapshot()).isTrue();
+            assertThat(log.snapshot()).isFalse();
+            // Dwa rekordy i COMMIT - transakcja przechodzi przez granicę segmentów
+            log.append(List.of(reading(4, 4.0, "A")), List.of(reading(11, 11.0, "A")), false);
+        }
+
+        assertThat(segments()).hasSize(2);
+        assertThat(restore(segmentSize)).extracting(TemperatureReading::getId)
+                .containsExactly(1L, 2L, 3L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+    }
+
+    @Test
+    void transactionWithoutCommitIsDroppedOnReplay() throws IOException {
+        try (TemperatureSegmentLog log = open(1 << 20)) {
+            log.append(List.of(), List.of(reading(1, 10.0, "A")), false);
+            log.append(List.of(reading(1, 10.0, "A")), List.of(reading(1, 20.0, "A"), reading(2, 21.0, "A")), false);
+        }
+        try (RandomAccessFile segment = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            // Brak rekordu COMMIT (pozycja 4) - jak po błędzie w połowie zapisu transakcji
+            segment.seek(4L * TemperatureSegmentLog.RECORD_SIZE);
+            segment.write(new byte[TemperatureSegmentLog.RECORD_SIZE]);
+        }
+
+        try (TemperatureSegmentLog log = open(1 << 20)) {
+            assertThat(log.liveCount()).isEqualTo(1);
+            // Pozostałości przerwanej transakcji stoją przed tą - jej COMMIT ich nie obejmuje
+            log.append(List.of(), List.of(reading(3, 13.0, "A"), reading(4, 14.0, "A")), false);
+        }
+
+        List<TemperatureReading> restored = restore(1 << 20);
+        assertThat(restored).extracting(TemperatureReading::getId).containsExactly(1L, 3L, 4L);
+        assertThat(restored.get(0)).isEqualTo(reading(1, 10.0, "A"));
+    }
+
+    @Test
+    void eventsOfOneTransactionAreAppliedInOrder() throws IOException {
+        try (TemperatureSegmentLog log = open(1 << 20)) {
+            log.append(List.of(
+                    TemperatureReadingsChangedEvent.created(List.of(reading(1, 10.0, "A"), reading(2, 11.0, "A"))),
+                    TemperatureReadingsChangedEvent.updated(reading(1, 10.0, "A"), reading(1, 12.0, "A")),
+                    TemperatureReadingsChangedEvent.deleted(reading(2, 11.0, "A"))), false);
+            assertThat(log.liveCount()).isEqualTo(1);
+        }
+
+        assertThat(restore(1 << 20)).containsExactly(reading(1, 12.0, "A"));
+    }
+
+    private TemperatureSegmentLog open(long segmentSize) throws IOException {
+        TemperatureSegmentLog log = new TemperatureSegmentLog(directory, segmentSize);
+        log.open();
+        return log;
+    }
+
+    private List<TemperatureReading> restore(long segmentSize) throws IOException {
+        List<TemperatureReading> readings = new ArrayList<>();
+        try (TemperatureSegmentLog log = open(segmentSize)) {
+            log.forEachLive(readings::add);
+        }
+        readings.sort(Comparator.comparing(TemperatureReading::getId));
+        return readings;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+
+    private static TemperatureReading reading(long id, double temperature, String source) {
+        LocalDate date = LocalDate.of(2024, 3, 1).plusDays(id);
+        return TemperatureReading.builder()
+                .id(id)
+                .date(date)
+                .dayOfWeek(date.getDayOfWeek().getValue())
+                .hour(LocalTime.of((int) id % 24, 0))
+                .temperature(temperature)
+                .source(source)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000))
+                .updatedAt(LocalDateTime.of(2024, 3, 2, 8, 30))
+                .build();
+    }
+}
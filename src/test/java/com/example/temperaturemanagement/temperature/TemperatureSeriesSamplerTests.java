@@ -0,0 +1,95 @@
+package com.example.temperaturemanagement.temperature;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemperatureSeriesSamplerTests {
+
+    private static final long START = LocalDateTime.of(2025, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    @Test
+    void lttbKeepsEndpointsAndSpikeWithinMaxPoints() {
+        int readings = 10_000;
+        TemperatureSeriesService.LttbSampler sampler = new TemperatureSeriesService.LttbSampler(100, readings);
+        for (int i = 0; i < readings; i++) {
+            sampler.accept(START + i * 60L, i == 4321 ? 40.0 : 10.0 + Math.sin(i / 500.0));
+        }
+
+        List<TemperatureSeriesPoint> points = sampler.finish();
+
+        assertThat(points).hasSize(100);
+        assertThat(points.get(0).getTimestamp()).isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0));
+        assertThat(points.get(99).getTimestamp()).isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(readings - 1));
+        assertThat(points).extracting(TemperatureSeriesPoint::getTemperature).contains(40.0);
+        assertThat(points).extracting(TemperatureSeriesPoint::getTimestamp).isSorted();
+    }
+
+    @Test
+    void lttbToleratesMoreReadingsThanCounted() {
+        TemperatureSeriesService.LttbSampler sampler = new TemperatureSeriesService.LttbSampler(10, 50);
+        for (int i = 0; i < 80; i++) {
+            sampler.accept(START + i * 60L, i);
+        }
+
+        List<TemperatureSeriesPoint> points = sampler.finish();
+
+        assertThat(points).hasSize(10);
+        assertThat(points.get(9).getTemperature()).isEqualTo(79.0);
+        assertThat(sampler.accepted()).isEqualTo(80);
+    }
+
+    @Test
+    void lttbKeepsShortSeriesAndCapsRowsAddedAfterCounting() {
+        TemperatureSeriesService.LttbSampler exact = new TemperatureSeriesService.LttbSampler(10, 6);
+        for (int i = 0; i < 6; i++) {
+            exact.accept(START + i * 60L, i);
+        }
+        assertThat(exact.finish()).extracting(TemperatureSeriesPoint::getTemperature)
+                .containsExactly(0.0, 1.0, 2.0, 3.0, 4.0, 5.0);
+
+        // Policzono 6 odczytów, a strumień przyniósł 40 - wynik i tak mieści się w maxPoints
+        TemperatureSeriesService.LttbSampler grown = new TemperatureSeriesService.LttbSampler(10, 6);
+        for (int i = 0; i < 40; i++) {
+            grown.accept(START + i * 60L, i);
+        }
+        List<TemperatureSeriesPoint> points = grown.finish();
+
+        assertThat(points).hasSize(10);
+        assertThat(points.get(0).getTemperature()).isEqualTo(0.0);
+        assertThat(points.get(9).getTemperature()).isEqualTo(39.0);
+        assertThat(points).extracting(TemperatureSeriesPoint::getTimestamp).isSorted();
+    }
+
+    @Test
+    void bucketsAggregateMinMaxAndAverage() {
+        long day = 24 * 3600;
+        TemperatureSeriesService.BucketSampler sampler = new TemperatureSeriesService.BucketSampler(START, START + 2 * day, 2);
+        sampler.accept(START + 3600, 4.0);
+        sampler.accept(START + 7200, 8.0);
+        sampler.accept(START + day + 60, -1.0);
+
+        List<TemperatureSeriesPoint> points = sampler.finish();
+
+        assertThat(points).hasSize(2);
+        assertThat(points.get(0)).isEqualTo(new TemperatureSeriesPoint(LocalDateTime.of(2025, 1, 1, 0, 0), 6.0, 4.0, 8.0, 2L));
+        assertThat(points.get(1)).isEqualTo(new TemperatureSeriesPoint(LocalDateTime.of(2025, 1, 2, 0, 0), -1.0, -1.0, -1.0, 1L));
+    }
+
+    @Test
+    void bucketsMergeRollupsWithReadings() {
+        long day = 24 * 3600;
+        TemperatureSeriesService.BucketSampler sampler = new TemperatureSeriesService.BucketSampler(START, START + day, 1);
+        sampler.accept(START, 24, 240.0, -5.0, 25.0);
+        sampler.accept(START + 3600, 30.0);
+
+        List<TemperatureSeriesPoint> points = sampler.finish();
+
+        assertThat(points).containsExactly(new TemperatureSeriesPoint(LocalDateTime.of(2025, 1, 1, 0, 0), 10.8, -5.0, 30.0, 25L));
+        assertThat(sampler.accepted()).isEqualTo(25);
+    }
+}